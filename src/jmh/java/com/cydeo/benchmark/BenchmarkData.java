@@ -0,0 +1,114 @@
+package com.cydeo.benchmark;
+
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Role;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.User;
+import com.cydeo.enums.Gender;
+import com.cydeo.enums.Status;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {   // sample rows shaped like data.sql
+
+    private BenchmarkData() {
+    }
+
+    static ObjectMapper objectMapper() {   // same settings Spring Boot applies to the REST layer
+        return objectMapper(new JsonFactory());
+    }
+
+    static ObjectMapper objectMapper(JsonFactory factory) {   // JSON, or a binary format such as CBOR or Smile
+        ObjectMapper objectMapper = new ObjectMapper(factory);
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        objectMapper.registerModule(new JavaTimeModule());
+        return objectMapper;
+    }
+
+    static User user(long id, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        user.setUserName("user" + id + "@cydeo.com");
+        user.setPassWord("Abc1");
+        user.setPhone("1234567890");
+        user.setEnabled(true);
+        user.setGender(Gender.FEMALE);
+        user.setRole(new Role(role));
+        return user;
+    }
+
+    static Project project(long id) {
+        Project project = new Project();
+        project.setId(id);
+        project.setProjectCode("SP" + id);
+        project.setProjectName("Project " + id);
+        project.setProjectDetail("Project detail " + id);
+        project.setStartDate(LocalDate.of(2022, 1, 5));
+        project.setEndDate(LocalDate.of(2022, 6, 12));
+        project.setProjectStatus(Status.OPEN);
+        project.setAssignedManager(user(id, "Manager"));
+        return project;
+    }
+
+    static Task task(long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTaskSubject("Task subject " + id);
+        task.setTaskDetail("Task detail for task number " + id);
+        task.setTaskStatus(Status.IN_PROGRESS);
+        task.setAssignedDate(LocalDate.of(2022, 1, 5));
+        task.setProject(project(id % 50));
+        task.setAssignedEmployee(user(id % 200, "Employee"));
+        return task;
+    }
+
+    static UserDTO userDto(long id, String role) {
+        UserDTO user = new UserDTO();
+        user.setId(id);
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        user.setUserName("user" + id + "@cydeo.com");
+        user.setPhone("1234567890");
+        user.setEnabled(true);
+        user.setGender(Gender.FEMALE);
+        user.setRole(new RoleDTO(3L, role));
+        return user;
+    }
+
+    static ProjectDTO projectDto(long id) {
+        ProjectDTO project = new ProjectDTO("Project " + id, "SP" + id, userDto(id, "Manager"),
+                LocalDate.of(2022, 1, 5), LocalDate.of(2022, 6, 12), "Project detail " + id, Status.OPEN);
+        project.setId(id);
+        return project;
+    }
+
+    static TaskDTO taskDto(long id) {
+        return new TaskDTO(id, projectDto(id % 50), userDto(id % 200, "Employee"),
+                "Task subject " + id, "Task detail for task number " + id, Status.IN_PROGRESS, LocalDate.of(2022, 1, 5));
+    }
+
+    static List<TaskDTO> taskDtos(int count) {
+        List<TaskDTO> tasks = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) tasks.add(taskDto(i));
+        return tasks;
+    }
+
+    static List<ProjectDTO> projectDtos(int count) {
+        List<ProjectDTO> projects = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) projects.add(projectDto(i));
+        return projects;
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.cydeo.benchmark;
+
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.dto.TaskDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.Getter;
+import lombok.Setter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON vs CBOR vs Smile for the ResponseWrapper of a large task list: encode and decode time here,
+// payload sizes are printed once per trial
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    @Param({"1000", "10000"})
+    int size;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    ObjectMapper objectMapper;
+    ResponseWrapper tasks;
+    byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = BenchmarkData.objectMapper(factory(format));
+        tasks = new ResponseWrapper("Tasks are successfully retrieved", BenchmarkData.taskDtos(size), HttpStatus.OK);
+        encoded = objectMapper.writeValueAsBytes(tasks);
+        System.out.printf("%n%s, %d tasks: %d bytes%n", format, size, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encodeTaskList() throws IOException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public TaskListResponse decodeTaskList() throws IOException {
+        return objectMapper.readValue(encoded, TaskListResponse.class);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    // what a consumer binds a task list response to
+    @Getter
+    @Setter
+    public static class TaskListResponse {
+
+        private boolean success;
+        private String message;
+        private Integer code;
+        private List<TaskDTO> data;
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.cydeo.benchmark;
+
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.User;
+import com.cydeo.mapper.ProjectMapper;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.mapper.UserMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    ProjectMapper projectMapper;
+    TaskMapper taskMapper;
+    UserMapper userMapper;
+
+    Project project;
+    ProjectDTO projectDto;
+    Task task;
+    TaskDTO taskDto;
+    User user;
+    UserDTO userDto;
+
+    @Setup
+    public void setUp() {
+        ModelMapper modelMapper = new ModelMapper();   // one shared instance, like the application bean
+        projectMapper = new ProjectMapper(modelMapper);
+        taskMapper = new TaskMapper(modelMapper);
+        userMapper = new UserMapper(modelMapper);
+
+        project = BenchmarkData.project(1);
+        projectDto = BenchmarkData.projectDto(1);
+        task = BenchmarkData.task(1);
+        taskDto = BenchmarkData.taskDto(1);
+        user = BenchmarkData.user(1, "Employee");
+        userDto = BenchmarkData.userDto(1, "Employee");
+    }
+
+    @Benchmark
+    public ProjectDTO projectToDto() {
+        return projectMapper.convertToDto(project);
+    }
+
+    @Benchmark
+    public Project projectToEntity() {
+        return projectMapper.convertToEntity(projectDto);
+    }
+
+    @Benchmark
+    public TaskDTO taskToDto() {
+        return taskMapper.convertToDto(task);
+    }
+
+    @Benchmark
+    public Task taskToEntity() {
+        return taskMapper.convertToEntity(taskDto);
+    }
+
+    @Benchmark
+    public UserDTO userToDto() {
+        return userMapper.convertToDto(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return userMapper.convertToEntity(userDto);
+    }
+
+}
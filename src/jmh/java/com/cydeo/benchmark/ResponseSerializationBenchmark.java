@@ -0,0 +1,43 @@
+package com.cydeo.benchmark;
+
+import com.cydeo.dto.ResponseWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    ObjectMapper objectMapper;
+    ResponseWrapper tasks;
+    ResponseWrapper projects;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkData.objectMapper();
+        tasks = new ResponseWrapper("Tasks are successfully retrieved", BenchmarkData.taskDtos(size), HttpStatus.OK);
+        projects = new ResponseWrapper("Projects are successfully retrieved", BenchmarkData.projectDtos(size), HttpStatus.OK);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeProjectList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(projects);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.cydeo.benchmark;
+
+import com.cydeo.TicketingProjectRestApplication;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.enums.Status;
+import com.cydeo.fixture.TestData;
+import com.cydeo.service.ProjectService;
+import com.cydeo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.cydeo.fixture.TestData.project;
+import static com.cydeo.fixture.TestData.task;
+import static com.cydeo.fixture.TestData.user;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {   // service hot paths against the "embedded" H2 profile
+
+    private static final int PROJECTS = 50;
+    private static final int EMPLOYEES = 200;
+
+    @Param({"1000"})
+    int tasks;
+
+    ConfigurableApplicationContext context;
+    TaskService taskService;
+    ProjectService projectService;
+    TransactionTemplate session;   // stands in for the open-in-view session an HTTP request gets
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TicketingProjectRestApplication.class)
+                .profiles("embedded")
+                .run("--server.port=0");
+
+        seed(context.getBean(JdbcTemplate.class));
+
+        taskService = context.getBean(TaskService.class);
+        projectService = context.getBean(ProjectService.class);
+        session = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        session.setReadOnly(true);
+        taskService.rebuildSearchIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> listAllTasks() {
+        return session.execute(status -> taskService.listAllTasks());
+    }
+
+    @Benchmark
+    public TaskDTO findTaskById() {
+        return session.execute(status -> taskService.findById((long) (tasks / 2)));
+    }
+
+    @Benchmark
+    public List<TaskDTO> searchTasks() {
+        return session.execute(status -> taskService.search("subject 12", 20));
+    }
+
+    @Benchmark
+    public int totalNonCompletedTask() {
+        return session.execute(status -> taskService.totalNonCompletedTask("SP7"));
+    }
+
+    @Benchmark
+    public List<ProjectDTO> listAllProjects() {
+        return session.execute(status -> projectService.listAllProjects());
+    }
+
+    @Benchmark
+    public ProjectDTO getByProjectCode() {
+        return session.execute(status -> projectService.getByProjectCode("SP7"));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+
+        TestData testData = new TestData(jdbcTemplate);
+
+        List<TestData.UserRow> employees = new ArrayList<>();
+        for (int i = 1; i <= EMPLOYEES; i++) {
+            employees.add(user("employee" + i + "@cydeo.com").name("First" + i, "Last" + i));
+        }
+        testData.insertUsers(employees);
+
+        List<TestData.ProjectRow> projects = new ArrayList<>();
+        for (int i = 1; i <= PROJECTS; i++) {
+            projects.add(project("SP" + i).name("Project " + i).detail("Project detail " + i).status(Status.OPEN)
+                    .dates(LocalDate.of(2022, 1, 5), LocalDate.of(2022, 6, 12)));
+        }
+        testData.insertProjects(projects);
+
+        Long firstEmployee = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE user_name LIKE 'employee%'", Long.class);
+        Long firstProject = jdbcTemplate.queryForObject("SELECT MIN(id) FROM projects WHERE project_code LIKE 'SP%' AND project_code <> 'SP00'", Long.class);
+
+        List<TestData.TaskRow> rows = new ArrayList<>();
+        for (int i = 1; i <= tasks; i++) {
+            rows.add(task(firstProject + i % PROJECTS).subject("Task subject " + i).detail("Task detail for task number " + i)
+                    .status(i % 3 == 0 ? Status.COMPLETE : Status.OPEN).assignedDate(LocalDate.of(2022, 1, 5))
+                    .employee(firstEmployee + i % EMPLOYEES));
+        }
+        testData.insertTasks(rows);
+    }
+
+}
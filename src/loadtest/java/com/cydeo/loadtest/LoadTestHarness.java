@@ -0,0 +1,260 @@
+package com.cydeo.loadtest;
+
+import com.cydeo.TicketingProjectRestApplication;
+import com.cydeo.enums.Status;
+import com.cydeo.fixture.TestData;
+import com.cydeo.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Starts the app on the "embedded" H2 profile against a stub identity provider and drives every
+// ProjectController, TaskController and UserController endpoint, one endpoint at a time.
+//
+// mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="threads=16 duration=20 only=task.list,user.list"
+// Per-user rate limiting is off unless ratelimit=on, since every scenario hammers the app as a single user.
+public class LoadTestHarness {
+
+    private static final String MANAGER = "ozzy";      // users loaded by data.sql
+    private static final String ADMIN = "mike";
+    private static final String EMPLOYEE = "sam";
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private String baseUrl;
+    private final Map<String, String> tokens = new HashMap<>();
+    private final Map<String, Long> ids = new HashMap<>();
+    private int seededTasks;
+
+    private LoadTestHarness(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        new LoadTestHarness(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "2")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "10")));
+        seededTasks = Integer.parseInt(options.getOrDefault("tasks", "2000"));
+        Set<String> only = options.containsKey("only") ? new HashSet<>(Arrays.asList(options.get("only").split(","))) : null;
+        File output = new File(options.getOrDefault("out", "target/loadtest-result.json"));
+
+        try (StubIdentityProvider identityProvider = new StubIdentityProvider("ticketing-app",
+                Map.of(ADMIN, "Admin", MANAGER, "Manager", EMPLOYEE, "Employee"))) {
+
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(TicketingProjectRestApplication.class)
+                    .profiles("embedded")
+                    .run("--server.port=0",
+                            "--keycloak.auth-server-url=" + identityProvider.getAuthServerUrl(),
+                            "--logging.level.root=WARN",
+                            "--app.rate-limit.enabled=" + "on".equals(options.get("ratelimit")));
+
+            try {
+                baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                String realm = context.getEnvironment().getProperty("keycloak.realm");
+                for (String user : List.of(ADMIN, MANAGER, EMPLOYEE)) {
+                    tokens.put(user, "Bearer " + identityProvider.issueToken(realm, user));
+                }
+
+                seed(context.getBean(JdbcTemplate.class));
+                context.getBean(TaskService.class).rebuildSearchIndex();
+
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(Executors.newFixedThreadPool(threads))
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+
+                List<Scenario.Result> results = new ArrayList<>();
+                System.out.printf("%n%-28s %9s %7s %10s %9s %9s %9s %9s  %s%n",
+                        "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "statuses");
+                for (Scenario scenario : scenarios()) {
+                    if (only != null && !only.contains(scenario.getName())) continue;
+                    Scenario.Result result = scenario.run(client, threads, warmup, duration);
+                    System.out.println(result);
+                    results.add(result);
+                }
+
+                output.getParentFile().mkdirs();
+                objectMapper.writeValue(output, results);
+                System.out.println("\nResults written to " + output.getAbsolutePath());
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private List<Scenario> scenarios() {
+
+        long loadProject = ids.get("LOAD-1");
+        long firstTask = ids.get("firstTask");
+        int updatable = seededTasks / 2;                          // first half is read and updated, second half is deleted
+        AtomicLong createdProjects = new AtomicLong();
+        AtomicLong deletedProjects = new AtomicLong();
+        AtomicLong deletedTasks = new AtomicLong();
+        AtomicLong createdUsers = new AtomicLong();
+        AtomicLong deletedUsers = new AtomicLong();
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        return List.of(
+                new Scenario("project.list", i -> get("/api/v1/project", MANAGER)),
+                new Scenario("project.get", i -> get("/api/v1/project/LOAD-" + (i % 50 + 1), MANAGER)),
+                new Scenario("project.create", i -> send("POST", "/api/v1/project", MANAGER,
+                        project("LT-" + run + "-" + createdProjects.incrementAndGet()))),
+                new Scenario("project.update", i -> send("PUT", "/api/v1/project", MANAGER, project("LOAD-" + (i % 50 + 1)))),
+                new Scenario("project.manager-status", i -> get("/api/v1/project/manager/project-status", MANAGER)),
+                Scenario.limited("project.delete", i -> {
+                    long next = deletedProjects.incrementAndGet();
+                    return next > createdProjects.get() ? null
+                            : send("DELETE", "/api/v1/project/LT-" + run + "-" + next, MANAGER, null);
+                }),
+                new Scenario("project.complete", i -> send("PUT", "/api/v1/project/manager/complete/DONE-" + (i % 50 + 1), MANAGER, null)),
+
+                new Scenario("task.list", i -> get("/api/v1/task", MANAGER)),
+                new Scenario("task.get", i -> get("/api/v1/task/" + (firstTask + i % updatable), MANAGER)),
+                new Scenario("task.search", i -> get("/api/v1/task/search?query=subject+" + (i % 100), MANAGER)),
+                new Scenario("task.create", i -> send("POST", "/api/v1/task", MANAGER, task(null, loadProject, "Load task " + i))),
+                new Scenario("task.update", i -> send("PUT", "/api/v1/task", MANAGER,
+                        task(firstTask + i % updatable, loadProject, "Updated task " + i))),
+                Scenario.limited("task.delete", i -> {
+                    long next = deletedTasks.incrementAndGet();
+                    return next > seededTasks - updatable ? null
+                            : send("DELETE", "/api/v1/task/" + (firstTask + updatable + next - 1), MANAGER, null);
+                }),
+                new Scenario("task.employee-pending", i -> get("/api/v1/task/employee/pending-tasks", EMPLOYEE)),
+                new Scenario("task.employee-update", i -> send("PUT", "/api/v1/task/employee/update", EMPLOYEE,
+                        task(firstTask + i % updatable, loadProject, "Employee update " + i))),
+                new Scenario("task.employee-archive", i -> get("/api/v1/task/employee/archive", EMPLOYEE)),
+
+                new Scenario("user.list", i -> get("/api/v1/user", ADMIN)),
+                new Scenario("user.get", i -> get("/api/v1/user/" + EMPLOYEE, ADMIN)),
+                new Scenario("user.create", i -> send("POST", "/api/v1/user", ADMIN,
+                        user("lt-" + run + "-" + createdUsers.incrementAndGet() + "@cydeo.com"))),
+                new Scenario("user.update", i -> send("PUT", "/api/v1/user", ADMIN, user("load.user@cydeo.com"))),
+                Scenario.limited("user.delete", i -> {
+                    long next = deletedUsers.incrementAndGet();
+                    return next > createdUsers.get() ? null
+                            : send("DELETE", "/api/v1/user/lt-" + run + "-" + next + "@cydeo.com", ADMIN, null);
+                }),
+
+                new Scenario("batch.manager-page", i -> send("POST", "/api/v1/batch", MANAGER, List.of(   // the calls of the manager's landing page
+                        Map.of("method", "GET", "path", "/api/v1/project"),
+                        Map.of("method", "GET", "path", "/api/v1/project/manager/project-status"),
+                        Map.of("method", "GET", "path", "/api/v1/user"),
+                        Map.of("method", "GET", "path", "/api/v1/task/" + (firstTask + i % updatable)))))
+        );
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+
+        TestData testData = new TestData(jdbcTemplate);
+
+        List<TestData.ProjectRow> projects = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            projects.add(TestData.project("LOAD-" + i).name("Load project " + i));
+            projects.add(TestData.project("DONE-" + i).name("Project to complete " + i));
+        }
+        projects.forEach(project -> project.detail("Load test project").status(Status.OPEN)
+                .dates(LocalDate.of(2022, 1, 5), LocalDate.of(2022, 6, 12)));
+        testData.insertProjects(projects);
+        Map<String, Long> projectIds = new HashMap<>(testData.projectIds("LOAD-"));
+        projectIds.putAll(testData.projectIds("DONE-"));
+        ids.put("LOAD-1", projectIds.get("LOAD-1"));
+
+        testData.insert(TestData.user("load.user@cydeo.com").name("Load", "User"));
+
+        List<TestData.TaskRow> tasks = new ArrayList<>();
+        for (int i = 1; i <= seededTasks; i++) {
+            tasks.add(TestData.task(projectIds.get((i % 2 == 0 ? "LOAD-" : "DONE-") + (i % 50 + 1)))
+                    .subject("Task subject " + i).detail("Task detail for task number " + i)
+                    .status(i % 3 == 0 ? Status.COMPLETE : Status.OPEN).assignedDate(LocalDate.of(2022, 1, 5)));
+        }
+        testData.insertTasks(tasks);
+        ids.put("firstTask", jdbcTemplate.queryForObject("SELECT MIN(id) FROM tasks", Long.class));
+    }
+
+    private HttpRequest get(String path, String user) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", tokens.get(user))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest send(String method, String path, String user, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", tokens.get(user))
+                    .header("Accept", "application/json")
+                    .header("Content-Type", "application/json")
+                    .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, Object> project(String code) {
+        Map<String, Object> project = new LinkedHashMap<>();
+        project.put("projectCode", code);
+        project.put("projectName", "Load project " + code);
+        project.put("projectDetail", "Created by the load harness");
+        project.put("startDate", "2022-01-05");
+        project.put("endDate", "2022-06-12");
+        project.put("assignedManager", Map.of("id", 2, "userName", MANAGER));
+        return project;
+    }
+
+    private Map<String, Object> task(Long id, long projectId, String subject) {
+        Map<String, Object> task = new LinkedHashMap<>();
+        if (id != null) task.put("id", id);
+        task.put("taskSubject", subject);
+        task.put("taskDetail", "Load harness task detail");
+        task.put("taskStatus", id == null ? null : "IN_PROGRESS");
+        task.put("project", Map.of("id", projectId));
+        task.put("assignedEmployee", Map.of("id", 3, "userName", EMPLOYEE));
+        return task;
+    }
+
+    private Map<String, Object> user(String userName) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("firstName", "Load");
+        user.put("lastName", "User");
+        user.put("userName", userName);
+        user.put("passWord", "Abc1");
+        user.put("confirmPassWord", "Abc1");
+        user.put("phone", "1234567890");
+        user.put("gender", "FEMALE");
+        user.put("role", Map.of("id", 3, "description", "Employee"));
+        return user;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.cydeo.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+// One endpoint driven by a fixed number of threads for a fixed time; every response time is kept so the percentiles are exact.
+class Scenario {
+
+    private final String name;
+    private final LongFunction<HttpRequest> requests;   // returns null once there is nothing left to send (e.g. no more rows to delete)
+    private final boolean limited;
+
+    Scenario(String name, LongFunction<HttpRequest> requests) {
+        this(name, requests, false);
+    }
+
+    // a scenario that draws from a limited pool of rows (deletes) is measured from its first request,
+    // a warmup could use up the whole pool and leave nothing to measure
+    static Scenario limited(String name, LongFunction<HttpRequest> requests) {
+        return new Scenario(name, requests, true);
+    }
+
+    private Scenario(String name, LongFunction<HttpRequest> requests, boolean limited) {
+        this.name = name;
+        this.requests = requests;
+        this.limited = limited;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Result run(HttpClient client, int threads, Duration warmup, Duration duration) throws InterruptedException {
+
+        AtomicLong sequence = new AtomicLong();
+        long warmupEnd = System.nanoTime() + (limited ? 0 : warmup.toNanos());
+        long end = warmupEnd + duration.toNanos();
+
+        List<long[]> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+        Map<Integer, AtomicLong> statuses = Collections.synchronizedMap(new TreeMap<>());
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                try {
+                    while (System.nanoTime() < end) {
+                        HttpRequest request = requests.apply(sequence.incrementAndGet());
+                        if (request == null) break;
+
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long elapsed = System.nanoTime() - start;
+
+                        if (start + elapsed < warmupEnd) continue;   // a slow call that outlasts the warmup is measured
+                        if (status < 200 || status >= 300) errors.incrementAndGet();
+                        statuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+                        if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+                        samples[count++] = elapsed;
+                    }
+                } finally {
+                    latencies.add(Arrays.copyOf(samples, count));
+                    done.countDown();
+                }
+            }, "load-" + name + "-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        long measuredNanos = Math.max(1, Math.min(System.nanoTime(), end) - warmupEnd);
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(String.valueOf(status), count.get()));
+
+        return new Result(name, threads, all.length, errors.get(), all.length / (measuredNanos / 1e9),
+                percentile(all, 50), percentile(all, 90), percentile(all, 99), all.length == 0 ? 0 : all[all.length - 1] / 1e6,
+                statusCounts);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    static class Result {
+
+        public final String endpoint;
+        public final int threads;
+        public final long requests;
+        public final long errors;
+        public final double throughputPerSecond;
+        public final double p50Millis;
+        public final double p90Millis;
+        public final double p99Millis;
+        public final double maxMillis;
+        public final Map<String, Long> statuses;
+
+        Result(String endpoint, int threads, long requests, long errors, double throughputPerSecond,
+               double p50Millis, double p90Millis, double p99Millis, double maxMillis, Map<String, Long> statuses) {
+            this.endpoint = endpoint;
+            this.threads = threads;
+            this.requests = requests;
+            this.errors = errors;
+            this.throughputPerSecond = throughputPerSecond;
+            this.p50Millis = p50Millis;
+            this.p90Millis = p90Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+            this.statuses = statuses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f  %s",
+                    endpoint, requests, errors, throughputPerSecond, p50Millis, p90Millis, p99Millis, maxMillis, statuses);
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package com.cydeo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.keycloak.jose.jwk.JSONWebKeySet;
+import org.keycloak.jose.jwk.JWK;
+import org.keycloak.jose.jwk.JWKBuilder;
+import org.keycloak.jose.jws.JWSBuilder;
+import org.keycloak.representations.AccessToken;
+import org.keycloak.representations.idm.ClientRepresentation;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Answers the handful of Keycloak endpoints the app touches: the realm's signing keys for bearer-token
+// verification, the token endpoint (app users and the master admin), and the admin user/role calls KeycloakServiceImpl makes.
+public class StubIdentityProvider implements AutoCloseable {
+
+    private static final String KID = "load-test-key";
+    private static final Pattern ADMIN_USER = Pattern.compile("/auth/admin/realms/([^/]+)/users/([^/]+)(/.*)?");
+    private static final Pattern ADMIN_CLIENT_ROLE = Pattern.compile("/auth/admin/realms/([^/]+)/clients/([^/]+)/roles/([^/]+)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, UserRepresentation> users = new ConcurrentHashMap<>();
+    private final Map<String, String> roles;
+    private final String clientId;
+    private final KeyPair keyPair;
+    private final HttpServer server;
+
+    public StubIdentityProvider(String clientId, Map<String, String> roles) throws IOException, NoSuchAlgorithmException {
+        this.clientId = clientId;
+        this.roles = roles;
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        this.keyPair = generator.generateKeyPair();
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/auth", this::handle);
+        this.server.setExecutor(Executors.newFixedThreadPool(8));
+        this.server.start();
+    }
+
+    public String getAuthServerUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/auth";
+    }
+
+    public int getUserCount() {
+        return users.size();
+    }
+
+    public String issueToken(String realm, String username) {
+
+        long now = System.currentTimeMillis() / 1000;
+
+        AccessToken token = new AccessToken();
+        token.id(UUID.randomUUID().toString());
+        token.issuer(getAuthServerUrl() + "/realms/" + realm);
+        token.subject(UUID.nameUUIDFromBytes(username.getBytes(StandardCharsets.UTF_8)).toString());
+        token.type("Bearer");
+        token.issuedFor(clientId);
+        token.iat(now);
+        token.exp(now + 3600);
+        token.setPreferredUsername(username);
+        token.addAccess(clientId).addRole(roles.getOrDefault(username, "Employee"));
+
+        return new JWSBuilder().kid(KID).type("JWT").jsonContent(token).rsa256(keyPair.getPrivate());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (Exception e) {
+            send(exchange, 500, Map.of("error", String.valueOf(e.getMessage())));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> query = parameters(exchange.getRequestURI().getRawQuery());
+
+        if (path.endsWith("/.well-known/openid-configuration")) {
+            String realmUrl = getAuthServerUrl() + "/realms/" + path.split("/")[3];
+            String protocolUrl = realmUrl + "/protocol/openid-connect";
+            Map<String, Object> configuration = new HashMap<>();
+            configuration.put("issuer", realmUrl);
+            configuration.put("authorization_endpoint", protocolUrl + "/auth");
+            configuration.put("token_endpoint", protocolUrl + "/token");
+            configuration.put("userinfo_endpoint", protocolUrl + "/userinfo");
+            configuration.put("end_session_endpoint", protocolUrl + "/logout");
+            configuration.put("jwks_uri", protocolUrl + "/certs");
+            configuration.put("introspection_endpoint", protocolUrl + "/token/introspect");
+            send(exchange, 200, configuration);
+
+        } else if (path.endsWith("/protocol/openid-connect/certs")) {
+            JWK key = JWKBuilder.create().kid(KID).rs256(keyPair.getPublic());
+            JSONWebKeySet keySet = new JSONWebKeySet();
+            keySet.setKeys(new JWK[]{key});
+            send(exchange, 200, keySet);
+
+        } else if (path.endsWith("/protocol/openid-connect/token") && method.equals("POST")) {
+            String realm = path.split("/")[3];
+            Map<String, String> form = parameters(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            send(exchange, 200, Map.of(
+                    "access_token", issueToken(realm, form.getOrDefault("username", "admin")),
+                    "expires_in", 3600,
+                    "refresh_expires_in", 0,
+                    "token_type", "Bearer"));
+
+        } else if (path.matches("/auth/admin/realms/[^/]+/users") && method.equals("POST")) {
+            UserRepresentation user = read(exchange.getRequestBody(), UserRepresentation.class);
+            user.setId(UUID.randomUUID().toString());
+            user.setCredentials(null);
+            users.put(user.getId(), user);
+            exchange.getResponseHeaders().add("Location", getAuthServerUrl() + path.substring("/auth".length()) + "/" + user.getId());
+            send(exchange, 201, null);
+
+        } else if (path.matches("/auth/admin/realms/[^/]+/users") && method.equals("GET")) {
+            String term = query.getOrDefault("username", query.getOrDefault("search", ""));
+            boolean exact = Boolean.parseBoolean(query.get("exact"));
+            List<UserRepresentation> found = new ArrayList<>();
+            for (UserRepresentation user : users.values()) {
+                if (exact ? user.getUsername().equals(term) : user.getUsername().contains(term)) found.add(user);
+            }
+            send(exchange, 200, found);
+
+        } else if (path.matches("/auth/admin/realms/[^/]+/clients") && method.equals("GET")) {
+            ClientRepresentation client = new ClientRepresentation();
+            client.setId(clientId + "-id");
+            client.setClientId(query.getOrDefault("clientId", clientId));
+            send(exchange, 200, List.of(client));
+
+        } else if (ADMIN_CLIENT_ROLE.matcher(path).matches()) {
+            Matcher matcher = ADMIN_CLIENT_ROLE.matcher(path);
+            matcher.matches();
+            RoleRepresentation role = new RoleRepresentation(matcher.group(3), "", false);
+            role.setId(matcher.group(3) + "-id");
+            role.setClientRole(true);
+            send(exchange, 200, role);
+
+        } else if (ADMIN_USER.matcher(path).matches()) {
+            Matcher matcher = ADMIN_USER.matcher(path);
+            matcher.matches();
+            String id = matcher.group(2);
+            if (matcher.group(3) != null) {                                   // role mappings, credential resets
+                exchange.getRequestBody().readAllBytes();   // left unread, the admin client's pooled connection is dropped
+                send(exchange, 204, null);
+            } else if (!users.containsKey(id)) {
+                send(exchange, 404, Map.of("error", "User not found"));
+            } else if (method.equals("DELETE")) {
+                exchange.getRequestBody().readAllBytes();   // an empty body, but unread it still drops the connection
+                users.remove(id);
+                send(exchange, 204, null);
+            } else if (method.equals("PUT")) {
+                UserRepresentation update = read(exchange.getRequestBody(), UserRepresentation.class);
+                update.setId(id);
+                update.setCredentials(null);
+                users.put(id, update);
+                send(exchange, 204, null);
+            } else {
+                send(exchange, 200, users.get(id));
+            }
+
+        } else {
+            send(exchange, 404, Map.of("error", "Unknown endpoint " + method + " " + path));
+        }
+    }
+
+    private <T> T read(InputStream body, Class<T> type) throws IOException {
+        return objectMapper.readValue(body, type);
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> parameters(String raw) {
+        Map<String, String> parameters = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return parameters;
+        for (String pair : raw.split("&")) {
+            int split = pair.indexOf('=');
+            if (split < 0) continue;
+            parameters.put(URLDecoder.decode(pair.substring(0, split), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.cydeo.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// deadline of an endpoint when the caller sends no X-Request-Timeout, see RequestDeadlineInterceptor
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestTimeout {
+
+    long millis();
+}
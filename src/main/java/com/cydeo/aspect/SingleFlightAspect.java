@@ -0,0 +1,102 @@
+package com.cydeo.aspect;
+
+import com.cydeo.cache.CacheFill;
+import com.cydeo.deadline.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// The first caller of a @SingleFlight method (the leader) runs it; callers with equal arguments that arrive
+// while it is running (followers) wait for and share its result instead of repeating the query and mapping.
+// The result, DTOs included, is the same instance for every caller: lists come back read-only and the DTOs
+// must be treated as read-only too. Followers wait no longer than their RequestDeadline allows.
+// Nothing is kept after the leader returns, so this is not a cache.
+// Ordered outermost, so followers never open a transaction of their own.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SingleFlightAspect {
+
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long maxWaitMillis;   // for callers without a request deadline
+
+    public SingleFlightAspect(MeterRegistry meterRegistry, @Value("${app.request-timeout.default-ms:15000}") long maxWaitMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @Pointcut("@annotation(com.cydeo.annotation.SingleFlight)")
+    public void singleFlightPC() {}
+
+    @Around("singleFlightPC()")
+    public Object aroundSingleFlightAdvice(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+
+        if (CacheFill.isActive()) {   // a leader that queried before the cache was invalidated would fill it with stale rows
+            return proceedingJoinPoint.proceed();
+        }
+
+        String method = proceedingJoinPoint.getSignature().toShortString();
+        List<Object> key = new ArrayList<>();
+        key.add(method);
+        key.addAll(Arrays.asList(proceedingJoinPoint.getArgs()));
+
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+
+        if (leader != null) {
+            counter(method, "follower").increment();
+            RequestDeadline deadline = RequestDeadline.current();
+            long waitMillis = deadline != null ? deadline.remainingMillis() : maxWaitMillis;
+            try {
+                return leader.get(Math.max(0, waitMillis), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            } catch (TimeoutException e) {
+                counter(method, "timeout").increment();
+                throw new QueryTimeoutException("Gave up waiting " + waitMillis + " ms for a shared call of " + method);
+            }
+        }
+
+        counter(method, "leader").increment();
+        try {
+            Object result = readOnly(proceedingJoinPoint.proceed());
+            inFlight.remove(key, call);   // before completing, so later callers start a fresh call
+            call.complete(result);
+            return result;
+        } catch (Throwable throwable) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(throwable);
+            throw throwable;
+        }
+    }
+
+    // one caller sorting or filtering the shared list in place would change it for the others
+    private Object readOnly(Object result) {
+        return result instanceof List ? Collections.unmodifiableList((List<?>) result) : result;
+    }
+
+    private Counter counter(String method, String role) {
+        return meterRegistry.counter("single_flight.calls", "method", method, "role", role);
+    }
+
+}
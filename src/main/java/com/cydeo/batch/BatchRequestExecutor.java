@@ -0,0 +1,140 @@
+package com.cydeo.batch;
+
+import com.cydeo.deadline.RequestDeadline;
+import com.cydeo.deadline.RequestDeadlineInterceptor;
+import com.cydeo.dto.BatchRequestDTO;
+import com.cydeo.dto.BatchResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+
+// Runs the sub-requests of a batch through the DispatcherServlet, so each one gets the same handler mapping,
+// @RolesAllowed check, validation, interceptors and exception handling as a standalone call. Consecutive GETs
+// run in parallel with the caller's security context; any other method runs alone, in order, so a batch
+// can read what an earlier write in it changed.
+// Sub-requests do not pass the security filter chain, so each path is checked against it here, and only the
+// API is reachable: /actuator and anything else outside /api is refused before it gets to a handler.
+@Component
+@Slf4j
+public class BatchRequestExecutor {
+
+    public static final String BATCH_PATH = "/api/v1/batch";
+    public static final String SUB_REQUEST_ATTRIBUTE = BatchRequestExecutor.class.getName() + ".SUB_REQUEST";   // BatchController refuses these
+    private static final String API_PATH = "/api/";
+
+    private final DispatcherServlet dispatcherServlet;
+    private final WebInvocationPrivilegeEvaluator privilegeEvaluator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+
+    public BatchRequestExecutor(DispatcherServlet dispatcherServlet, WebInvocationPrivilegeEvaluator privilegeEvaluator,
+                                ObjectMapper objectMapper, @Value("${app.batch.parallelism:8}") int parallelism) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.privilegeEvaluator = privilegeEvaluator;
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("batch-"));
+    }
+
+    public List<BatchResponseDTO> execute(List<BatchRequestDTO> requests, HttpServletRequest batchRequest, HttpServletResponse batchResponse)
+            throws InterruptedException {
+
+        List<BatchResponseDTO> responses = new ArrayList<>(requests.size());
+        List<Future<BatchResponseDTO>> reads = new ArrayList<>();
+        RequestDeadline deadline = RequestDeadline.current();   // thread-bound, handed to the parallel reads as a header
+
+        for (BatchRequestDTO request : requests) {
+            Callable<BatchResponseDTO> call = () -> dispatch(request, deadline, batchRequest, batchResponse);
+            if (HttpMethod.GET.name().equalsIgnoreCase(request.getMethod())) {
+                reads.add(executor.submit(DelegatingSecurityContextCallable.create(call, SecurityContextHolder.getContext())));
+            } else {
+                collect(reads, responses);   // a write waits for the reads before it...
+                responses.add(dispatch(request, deadline, batchRequest, batchResponse));   // ...and the reads after it wait for the write
+            }
+        }
+        collect(reads, responses);
+        return responses;
+    }
+
+    private void collect(List<Future<BatchResponseDTO>> reads, List<BatchResponseDTO> responses) throws InterruptedException {
+        for (Future<BatchResponseDTO> read : reads) {
+            try {
+                responses.add(read.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());   // dispatch() turns failures into a 500 sub-response
+            }
+        }
+        reads.clear();
+    }
+
+    private BatchResponseDTO dispatch(BatchRequestDTO request, RequestDeadline deadline, HttpServletRequest batchRequest, HttpServletResponse batchResponse) {
+
+        if (request.getMethod() == null || request.getPath() == null || !request.getPath().startsWith("/")) {
+            return new BatchResponseDTO(request.getMethod(), request.getPath(), HttpStatus.BAD_REQUEST.value(), "Method and an absolute path are required");
+        }
+        if (!isAllowed(request, batchRequest.getContextPath())) {
+            return new BatchResponseDTO(request.getMethod(), request.getPath(), HttpStatus.FORBIDDEN.value(), "Access is denied");
+        }
+
+        try {
+            byte[] body = request.getBody() == null ? new byte[0] : objectMapper.writeValueAsBytes(request.getBody());
+            BatchSubRequest subRequest = new BatchSubRequest(batchRequest, request.getMethod(), request.getPath(), body);
+            subRequest.setAttribute(SUB_REQUEST_ATTRIBUTE, Boolean.TRUE);   // a path check misses encoded forms such as /api/v1/%62atch
+            if (deadline != null) {
+                subRequest.setHeader(RequestDeadlineInterceptor.TIMEOUT_HEADER, String.valueOf(Math.max(1, deadline.remainingMillis())));
+            }
+            BatchSubResponse subResponse = new BatchSubResponse(batchResponse);
+
+            dispatcherServlet.service(subRequest, subResponse);
+
+            return new BatchResponseDTO(request.getMethod(), request.getPath(), subResponse.getStatus(), bodyOf(subResponse));
+        } catch (Exception e) {
+            log.warn("Batch sub-request {} {} failed", request.getMethod(), request.getPath(), e);
+            return new BatchResponseDTO(request.getMethod(), request.getPath(), HttpStatus.INTERNAL_SERVER_ERROR.value(), "Action failed: An error occurred!");
+        }
+    }
+
+    private boolean isAllowed(BatchRequestDTO request, String contextPath) {
+        // decoded and without dot segments, as the handler mapping will see it
+        String path = StringUtils.cleanPath(UriUtils.decode(UriComponentsBuilder.fromUriString(request.getPath()).build().getPath(), StandardCharsets.UTF_8));
+        return path.startsWith(API_PATH) && privilegeEvaluator.isAllowed(contextPath, path, request.getMethod().toUpperCase(Locale.ROOT),
+                SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private Object bodyOf(BatchSubResponse subResponse) throws IOException {
+        byte[] body = subResponse.getBody();
+        if (body.length == 0) return null;
+        String contentType = subResponse.getContentType();
+        if (contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            return objectMapper.readTree(body);   // embedded as JSON, not as an escaped string
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.cydeo.cache;
+
+import java.util.function.Supplier;
+
+// Marks the thread that is loading a ResponseBodyCache entry. The entry is stored under the version read before
+// the load, so the load must not see rows older than that: it skips @SingleFlight coalescing (a leader may have
+// queried before the write) and the replica (which may not have the write yet). ResponseBodyCache coalesces
+// concurrent fills itself, per entry and version.
+public final class CacheFill {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private CacheFill() {
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    public static <T> T run(Supplier<T> load) {
+        if (isActive()) return load.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return load.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+}
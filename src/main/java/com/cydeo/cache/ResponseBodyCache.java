@@ -0,0 +1,228 @@
+package com.cydeo.cache;
+
+import com.cydeo.deadline.RequestDeadline;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+// Fully serialized response bodies of hot GET endpoints, per endpoint, caller role and negotiated format
+// (JSON unless the Accept header asks for CBOR or Smile). A hit writes the stored byte[] straight to the
+// response: no query, no mapping, no Jackson. Services call invalidate(..) after writes.
+// Concurrent misses on the same entry and version share one load; a miss after an invalidation starts its own.
+@Component
+public class ResponseBodyCache {
+
+    public static final String PROJECTS = "projects";
+    public static final String USERS = "users";
+
+    private final Map<MediaType, ObjectMapper> formats = new LinkedHashMap<>();   // JSON first, it is the default
+    private final int gzipMinBytes;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();   // by entry key and version
+    private final long maxWaitMillis;   // for callers without a request deadline
+
+    public ResponseBodyCache(ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter,
+                             MappingJackson2SmileHttpMessageConverter smileConverter,
+                             @Value("${app.response-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+                             @Value("${app.request-timeout.default-ms:15000}") long maxWaitMillis) {
+        this.formats.put(MediaType.APPLICATION_JSON, objectMapper);
+        this.formats.put(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper());
+        this.formats.put(new MediaType("application", "x-jackson-smile"), smileConverter.getObjectMapper());
+        this.gzipMinBytes = gzipMinBytes;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public ResponseEntity<byte[]> respond(String endpoint, HttpHeaders requestHeaders, Supplier<Object> body) {
+
+        MediaType format = negotiate(requestHeaders.getAccept());
+        Entry entry = get(endpoint, format, body);
+        boolean gzip = entry.gzip != null && acceptsGzip(requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? entry.gzip : entry.body);
+    }
+
+    // runs after the surrounding transaction commits, so a reader can't cache rows the writer may still roll back
+    public void invalidate(String... endpoints) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(endpoints);
+                }
+            });
+        } else {
+            invalidateNow(endpoints);
+        }
+    }
+
+    private void invalidateNow(String... endpoints) {
+        for (String endpoint : endpoints) {
+            version(endpoint).incrementAndGet();
+            entries.keySet().removeIf(key -> key.startsWith(endpoint + "|"));
+        }
+    }
+
+    private MediaType negotiate(List<MediaType> accept) {
+        MediaType.sortBySpecificityAndQuality(accept);
+        for (MediaType acceptable : accept) {
+            for (MediaType format : formats.keySet()) {
+                if (acceptable.includes(format)) return format;   // */* and application/* land on JSON, the first format
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private Entry get(String endpoint, MediaType format, Supplier<Object> body) {
+
+        String key = endpoint + "|" + callerRole() + "|" + format;
+        long version = version(endpoint).get();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == version) {
+            return entry;
+        }
+
+        String fill = key + "|" + version;   // a load that began before an invalidation is not shared after it
+        CompletableFuture<Entry> load = new CompletableFuture<>();
+        CompletableFuture<Entry> leader = loading.putIfAbsent(fill, load);
+        if (leader != null) {
+            return await(leader, endpoint);
+        }
+
+        try {
+            byte[] bytes = serialize(formats.get(format), CacheFill.run(body));   // rows at least as new as `version`
+            Entry fresh = new Entry(version, bytes, bytes.length >= gzipMinBytes ? gzip(bytes) : null);
+            if (version(endpoint).get() == version) {   // a write during serialization makes this copy stale, serve it once but don't keep it
+                entries.put(key, fresh);
+            }
+            loading.remove(fill, load);   // before completing, so later misses start a fresh load
+            load.complete(fresh);
+            return fresh;
+        } catch (RuntimeException | Error e) {
+            loading.remove(fill, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // waits no longer than the caller's RequestDeadline allows, like a @SingleFlight follower
+    private Entry await(CompletableFuture<Entry> leader, String endpoint) {
+        RequestDeadline deadline = RequestDeadline.current();
+        long waitMillis = deadline != null ? deadline.remainingMillis() : maxWaitMillis;
+        try {
+            return leader.get(Math.max(0, waitMillis), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw (RuntimeException) e.getCause();   // the load is a Supplier, it throws nothing checked
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Gave up waiting " + waitMillis + " ms for a shared load of " + endpoint);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared load of " + endpoint, e);
+        }
+    }
+
+    // "gzip" or "*" with a q-value above 0, unless gzip itself is listed with q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) return false;
+
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) gzip = quality;
+            else if (name.equals("*")) any = quality;
+        }
+        return gzip != null ? gzip > 0 : any != null && any > 0;
+    }
+
+    private AtomicLong version(String endpoint) {
+        return versions.computeIfAbsent(endpoint, e -> new AtomicLong());
+    }
+
+    private String callerRole() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) return "";
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted().collect(Collectors.joining(","));
+    }
+
+    private static byte[] serialize(ObjectMapper objectMapper, Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static class Entry {
+
+        private final long version;
+        private final byte[] body;
+        private final byte[] gzip;
+
+        Entry(long version, byte[] body, byte[] gzip) {
+            this.version = version;
+            this.body = body;
+            this.gzip = gzip;
+        }
+    }
+
+}
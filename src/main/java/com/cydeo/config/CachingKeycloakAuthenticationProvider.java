@@ -0,0 +1,71 @@
+package com.cydeo.config;
+
+import org.keycloak.KeycloakSecurityContext;
+import org.keycloak.adapters.springsecurity.authentication.KeycloakAuthenticationProvider;
+import org.keycloak.adapters.springsecurity.token.KeycloakAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The adapter has already verified the token's signature when this runs, so only the token -> authorities
+// mapping is cached, and never past the token's own expiry. A full cache drops its least recently used token,
+// so every lookup and insert stays O(1); expired entries are replaced on their next use or aged out that way.
+public class CachingKeycloakAuthenticationProvider extends KeycloakAuthenticationProvider {
+
+    private final Map<String, CachedAuthorities> cache;   // guarded by itself, access order
+    private final long ttlMillis;
+
+    public CachingKeycloakAuthenticationProvider(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAuthorities> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+
+        KeycloakAuthenticationToken token = (KeycloakAuthenticationToken) authentication;
+        KeycloakSecurityContext securityContext = token.getAccount().getKeycloakSecurityContext();
+        String key = securityContext.getToken().getId() != null ? securityContext.getToken().getId() : securityContext.getTokenString();
+        long now = System.currentTimeMillis();
+
+        CachedAuthorities cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null && cached.expiresAt > now) {
+            return new KeycloakAuthenticationToken(token.getAccount(), token.isInteractive(), cached.authorities);
+        }
+
+        Authentication result = super.authenticate(authentication);   // outside the lock, it maps the roles
+
+        Long tokenExpiry = securityContext.getToken().getExp();
+        long expiresAt = tokenExpiry == null ? now + ttlMillis : Math.min(now + ttlMillis, tokenExpiry * 1000);
+        if (expiresAt > now) {
+            synchronized (cache) {
+                cache.put(key, new CachedAuthorities(result.getAuthorities(), expiresAt));
+            }
+        }
+        return result;
+    }
+
+    private static class CachedAuthorities {
+
+        private final Collection<? extends GrantedAuthority> authorities;
+        private final long expiresAt;
+
+        CachedAuthorities(Collection<? extends GrantedAuthority> authorities, long expiresAt) {
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.cydeo.config;
+
+import com.cydeo.cache.CacheFill;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+// @Transactional(readOnly = true) work goes to the replica while it is reachable and caught up, everything else
+// (and ResponseBodyCache fills, see CacheFill) to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy so the read-only flag is already set when the connection is picked.
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final JdbcTemplate replicaTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable = true;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, String lagQuery, Duration maxLag) {
+        this.replicaTemplate = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean replicaRead = replicaUsable && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return replicaRead && !CacheFill.isActive() ? Route.REPLICA : Route.PRIMARY;   // a cache fill must see the write that invalidated it
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+
+        boolean usable;
+        try {
+            Double lagSeconds = replicaTemplate.queryForObject(lagQuery, Double.class);
+            usable = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+            if (!usable && replicaUsable) log.warn("Replica is {} s behind the primary, reads go to the primary", lagSeconds);
+        } catch (Exception e) {
+            usable = false;
+            if (replicaUsable) log.warn("Replica lag check failed, reads go to the primary: {}", e.getMessage());
+        }
+
+        if (usable && !replicaUsable) log.info("Replica caught up, read-only transactions go to the replica again");
+        replicaUsable = usable;
+    }
+
+}
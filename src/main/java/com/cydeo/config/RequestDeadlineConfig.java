@@ -0,0 +1,27 @@
+package com.cydeo.config;
+
+import com.cydeo.deadline.QueryDeadlineDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class RequestDeadlineConfig {
+
+    // like the SQL stats, only the datasource JPA uses is wrapped, not the pools behind it (see DataSourceRoutingConfig)
+    @Bean
+    public static BeanPostProcessor queryDeadlinePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource && !(bean instanceof QueryDeadlineDataSource)) {
+                    return new QueryDeadlineDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+}
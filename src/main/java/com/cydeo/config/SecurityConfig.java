@@ -2,36 +2,48 @@ package com.cydeo.config;
 
 import org.keycloak.adapters.KeycloakConfigResolver;
 import org.keycloak.adapters.springboot.KeycloakSpringBootConfigResolver;
-import org.keycloak.adapters.springsecurity.authentication.KeycloakAuthenticationProvider;
 import org.keycloak.adapters.springsecurity.config.KeycloakWebSecurityConfigurerAdapter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.authority.mapping.SimpleAuthorityMapper;
-import org.springframework.security.core.session.SessionRegistryImpl;
-import org.springframework.security.web.authentication.session.RegisterSessionAuthenticationStrategy;
+import org.springframework.security.web.authentication.session.NullAuthenticatedSessionStrategy;
 import org.springframework.security.web.authentication.session.SessionAuthenticationStrategy;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(jsr250Enabled = true)
 public class SecurityConfig extends KeycloakWebSecurityConfigurerAdapter {  // coming from the dependency
+
+    @Value("${security.authorities-cache.ttl:30s}")
+    private Duration authoritiesCacheTtl;
+    @Value("${security.authorities-cache.max-size:10000}")
+    private int authoritiesCacheMaxSize;
+
     @Override  // need to override this method when extending above
     protected void configure(HttpSecurity http) throws Exception {
         super.configure(http);
+        http.sessionManagement()
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS);  // bearer-only: every request brings its token, nothing is kept in an HttpSession
         http.authorizeRequests()
+                .antMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .antMatchers("/actuator/**").hasRole("Admin")   // metrics name endpoints, users and roles
                 .anyRequest()
                 .permitAll();  // able to accept all request to my app
         http.csrf().disable();
     }
     @Autowired
     public void configureGlobal(AuthenticationManagerBuilder auth) throws Exception {
-        KeycloakAuthenticationProvider keycloakAuthenticationProvider =
-                keycloakAuthenticationProvider();
+        CachingKeycloakAuthenticationProvider keycloakAuthenticationProvider =
+                new CachingKeycloakAuthenticationProvider(authoritiesCacheTtl.toMillis(), authoritiesCacheMaxSize);
         keycloakAuthenticationProvider.setGrantedAuthoritiesMapper(
                 new SimpleAuthorityMapper());   // by using th GrantedAuthoritiesMapper Keycloak is able to resolve the roles that our users have, and authorize/authenticate the user
         auth.authenticationProvider(keycloakAuthenticationProvider);
@@ -40,8 +52,7 @@ public class SecurityConfig extends KeycloakWebSecurityConfigurerAdapter {  // c
     @Override
     protected SessionAuthenticationStrategy
     sessionAuthenticationStrategy() {
-        return new RegisterSessionAuthenticationStrategy(
-                new SessionRegistryImpl());
+        return new NullAuthenticatedSessionStrategy();  // no session registry to grow and synchronize on with every request
     }
     @Bean
     public KeycloakConfigResolver KeycloakConfigResolver() {
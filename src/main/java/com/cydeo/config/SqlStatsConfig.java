@@ -0,0 +1,42 @@
+package com.cydeo.config;
+
+import com.cydeo.sql.SqlStatementCountingDataSource;
+import com.cydeo.sql.SqlStatsFilter;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlStatsConfig {
+
+    // only the datasource JPA uses is wrapped, not the pools behind it (see DataSourceRoutingConfig), and only when
+    // the stats are on: the wrapper proxies every connection and statement
+    @Bean
+    @ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true")
+    public static BeanPostProcessor sqlStatementCountingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource && !(bean instanceof SqlStatementCountingDataSource)) {
+                    return new SqlStatementCountingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true")
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(@Value("${app.sql-stats.repeat-threshold:5}") int repeatThreshold) {
+        FilterRegistrationBean<SqlStatsFilter> registration = new FilterRegistrationBean<>(new SqlStatsFilter(repeatThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+}
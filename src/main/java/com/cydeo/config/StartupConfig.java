@@ -0,0 +1,37 @@
+package com.cydeo.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+// Startup settings of the "prod" profile, see application-prod.properties
+@Configuration
+public class StartupConfig {
+
+    // with spring.main.lazy-initialization a bean is only created when first used, so a bean with @Scheduled
+    // methods would never be created and its job would never run
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && Arrays.stream(ReflectionUtils.getAllDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+    }
+
+    // training run for the class data sharing archive: start, load what a started app loads, exit; the
+    // other ready listeners still run, but jobs are not resumed and no user is looked up in keycloak
+    // java -XX:ArchiveClassesAtExit=app.jsa -jar app.jar --spring.profiles.active=prod --app.startup.training-run=true
+    @Bean
+    @ConditionalOnProperty(name = "app.startup.training-run", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitAfterStartup() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.cydeo.config;
+
+import com.cydeo.deadline.RequestDeadlineInterceptor;
+import com.cydeo.ratelimit.RateLimitInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RequestDeadlineInterceptor requestDeadlineInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    public WebConfig(RequestDeadlineInterceptor requestDeadlineInterceptor, RateLimitInterceptor rateLimitInterceptor) {
+        this.requestDeadlineInterceptor = requestDeadlineInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestDeadlineInterceptor).addPathPatterns("/api/**");
+        if (rateLimitEnabled) {
+            registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**");
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.cydeo.controller;
+
+import com.cydeo.batch.BatchRequestExecutor;
+import com.cydeo.dto.BatchRequestDTO;
+import com.cydeo.dto.ResponseWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.security.RolesAllowed;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+@RestController
+@RequestMapping(BatchRequestExecutor.BATCH_PATH)
+@Tag(name = "BatchController", description = "Batch API")
+public class BatchController {
+
+    private final BatchRequestExecutor batchRequestExecutor;
+
+    @Value("${app.batch.max-requests:20}")
+    private int maxRequests;
+
+    public BatchController(BatchRequestExecutor batchRequestExecutor) {
+        this.batchRequestExecutor = batchRequestExecutor;
+    }
+
+    @PostMapping
+    @RolesAllowed({"Admin", "Manager", "Employee"})     // every sub-request is still checked against its own endpoint
+    @Operation(summary = "Execute several API calls in one round trip")
+    public ResponseEntity<ResponseWrapper> executeBatch(@RequestBody List<BatchRequestDTO> requests,
+                                                        HttpServletRequest request, HttpServletResponse response) throws InterruptedException {
+        if (request.getAttribute(BatchRequestExecutor.SUB_REQUEST_ATTRIBUTE) != null) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.builder().success(false).code(HttpStatus.BAD_REQUEST.value())
+                    .message("Batches can not be nested").build());
+        }
+        if (requests.isEmpty() || requests.size() > maxRequests) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.builder().success(false).code(HttpStatus.BAD_REQUEST.value())
+                    .message("A batch takes 1 to " + maxRequests + " requests").build());
+        }
+        return ResponseEntity.ok(new ResponseWrapper("Batch is successfully executed",
+                batchRequestExecutor.execute(requests, request, response), HttpStatus.OK));
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.cydeo.controller;
+
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.service.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.security.RolesAllowed;
+
+@RestController
+@RequestMapping("/api/v1/job")
+@Tag(name = "JobController", description = "Background Job API")
+public class JobController {
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @GetMapping("/{jobId}")
+    @RolesAllowed({"Admin","Manager"})
+    @Operation(summary = "Get job status and progress")
+    public ResponseEntity<ResponseWrapper> getJobById(@PathVariable("jobId") Long jobId){
+        return ResponseEntity.ok(new ResponseWrapper("Job is successfully retrieved", jobService.findById(jobId), HttpStatus.OK));
+    }
+
+    @GetMapping
+    @RolesAllowed({"Admin","Manager"})
+    @Operation(summary = "Get queued and running jobs")
+    public ResponseEntity<ResponseWrapper> getUnfinishedJobs(){
+        return ResponseEntity.ok(new ResponseWrapper("Jobs are successfully retrieved", jobService.listAllUnfinished(), HttpStatus.OK));
+    }
+
+}
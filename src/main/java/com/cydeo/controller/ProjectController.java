@@ -1,15 +1,26 @@
 package com.cydeo.controller;
 
+import com.cydeo.annotation.RequestTimeout;
+import com.cydeo.cache.ResponseBodyCache;
+import com.cydeo.dto.JobDTO;
+import com.cydeo.dto.ProjectCloneDTO;
 import com.cydeo.dto.ProjectDTO;
 import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.exception.TicketingProjectException;
 import com.cydeo.service.ProjectService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.security.RolesAllowed;
+import javax.validation.Valid;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -18,16 +29,27 @@ import java.util.List;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final ResponseBodyCache responseBodyCache;
 
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, ResponseBodyCache responseBodyCache) {
         this.projectService = projectService;
+        this.responseBodyCache = responseBodyCache;
     }
 
     @GetMapping
     @RolesAllowed("Manager")
     @Operation(summary = "Get projects")
-    public ResponseEntity<ResponseWrapper> getProjects(){
-        return ResponseEntity.ok(new ResponseWrapper("Projects are successfully retrieved", projectService.listAllProjects(), HttpStatus.OK));
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ResponseWrapper.class)))   // the body is ResponseWrapper, already serialized
+    public ResponseEntity<byte[]> getProjects(@RequestHeader HttpHeaders headers){
+        return responseBodyCache.respond(ResponseBodyCache.PROJECTS, headers,   // served as stored bytes until a project or user write
+                () -> new ResponseWrapper("Projects are successfully retrieved", projectService.listAllProjects(), HttpStatus.OK));
+    }
+
+    @GetMapping("/overdue")
+    @RolesAllowed({"Admin","Manager"})
+    @Operation(summary = "Get projects past their end date")
+    public ResponseEntity<ResponseWrapper> getOverdueProjects(){
+        return ResponseEntity.ok(new ResponseWrapper("Overdue projects are successfully retrieved", projectService.listAllOverdue(), HttpStatus.OK));
     }
 
     @GetMapping("/{projectCode}")
@@ -45,6 +67,16 @@ public class ProjectController {
         return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseWrapper("Project is successfully created", HttpStatus.CREATED));
     }
 
+    @PostMapping("/{projectCode}/clone")
+    @RolesAllowed({"Admin","Manager"})
+    @Operation(summary = "Clone project with its tasks")
+    public ResponseEntity<ResponseWrapper> cloneProject(@PathVariable("projectCode") String projectCode,
+                                                        @Valid @RequestBody ProjectCloneDTO cloneDTO) throws TicketingProjectException {
+        ProjectDTO project = projectService.clone(projectCode, cloneDTO);
+        return ResponseEntity.created(URI.create("/api/v1/project/" + project.getProjectCode()))
+                .body(new ResponseWrapper("Project is successfully cloned", project, HttpStatus.CREATED));
+    }
+
     @PutMapping
     @RolesAllowed("Manager")
     @Operation(summary = "Update project")
@@ -57,12 +89,14 @@ public class ProjectController {
     @RolesAllowed("Manager")
     @Operation(summary = "Delete project")
     public ResponseEntity<ResponseWrapper> deleteProject(@PathVariable("projectCode") String projectCode){
-        projectService.delete(projectCode);
-        return ResponseEntity.ok(new ResponseWrapper("Project is successfully deleted", HttpStatus.OK));
+        JobDTO job = projectService.delete(projectCode);
+        return ResponseEntity.accepted().location(URI.create("/api/v1/job/" + job.getId()))
+                .body(new ResponseWrapper("Project deletion is accepted", job, HttpStatus.ACCEPTED));
     }
 
     @GetMapping("/manager/project-status")
     @RolesAllowed("Manager")
+    @RequestTimeout(millis = 5000)
     @Operation(summary = "Get project by manager")
     public ResponseEntity<ResponseWrapper> getProjectByManager() {
         List<ProjectDTO> projectDTOList = projectService.listAllProjectDetails();
@@ -74,7 +108,8 @@ public class ProjectController {
     @RolesAllowed("Manager")
     @Operation(summary = "Manager complete project")
     public ResponseEntity<ResponseWrapper> managerCompleteProject(@PathVariable("projectCode") String projectCode){
-        projectService.complete(projectCode);
-        return ResponseEntity.ok(new ResponseWrapper("Project is successfully completed", HttpStatus.OK));
+        JobDTO job = projectService.complete(projectCode);
+        return ResponseEntity.accepted().location(URI.create("/api/v1/job/" + job.getId()))
+                .body(new ResponseWrapper("Project completion is accepted", job, HttpStatus.ACCEPTED));
     }
 }
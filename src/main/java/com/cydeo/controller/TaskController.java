@@ -1,8 +1,11 @@
 package com.cydeo.controller;
 
+import com.cydeo.annotation.RequestTimeout;
 import com.cydeo.dto.ResponseWrapper;
 import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.TaskReassignDTO;
 import com.cydeo.enums.Status;
+import com.cydeo.exception.TicketingProjectException;
 import com.cydeo.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +21,8 @@ import java.util.List;
 @Tag(name = "TaskController", description = "Task API")
 public class TaskController {
 
+    private static final int MAX_LIMIT = 100;   // "limit" request parameters are clamped to 1..MAX_LIMIT
+
     private final TaskService taskService;
 
     public TaskController(TaskService taskService) {
@@ -26,6 +31,7 @@ public class TaskController {
 
     @GetMapping
     @RolesAllowed("Manager")
+    @RequestTimeout(millis = 5000)
     @Operation(summary = "Get tasks")
     public ResponseEntity<ResponseWrapper> getTasks(){
         return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully retrieved",
@@ -64,10 +70,36 @@ public class TaskController {
         return ResponseEntity.ok(new ResponseWrapper("Task is successfully updated", HttpStatus.OK));
     }
 
+    @GetMapping("/board/{projectCode}")
+    @RolesAllowed("Manager")
+    @Operation(summary = "Get project tasks grouped by status")
+    public ResponseEntity<ResponseWrapper> getBoard(@PathVariable("projectCode") String projectCode,
+                                                    @RequestParam(value = "limit", defaultValue = "50") int limit){
+        return ResponseEntity.ok(new ResponseWrapper("Board is successfully retrieved",
+                taskService.board(projectCode, clamp(limit)), HttpStatus.OK));
+    }
+
+    @GetMapping("/assignees/{projectCode}")
+    @RolesAllowed("Manager")
+    @Operation(summary = "Get least loaded employees to assign a project task to")
+    public ResponseEntity<ResponseWrapper> getRecommendedAssignees(@PathVariable("projectCode") String projectCode,
+                                                                   @RequestParam(value = "limit", defaultValue = "5") int limit){
+        return ResponseEntity.ok(new ResponseWrapper("Assignees are successfully retrieved",
+                taskService.recommendAssignees(projectCode, clamp(limit)), HttpStatus.OK));
+    }
+
+    @PutMapping("/reassign")
+    @RolesAllowed("Manager")
+    @Operation(summary = "Reassign all open tasks of an employee")
+    public ResponseEntity<ResponseWrapper> reassignTasks(@RequestBody TaskReassignDTO reassign) throws TicketingProjectException {
+        return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully reassigned",
+                taskService.reassignNonCompleted(reassign), HttpStatus.OK));
+    }
+
     @GetMapping("/employee/pending-tasks")
     @RolesAllowed("Employee")
     @Operation(summary = "Employee pending tasks")
-    public ResponseEntity<ResponseWrapper> employeePendingTasks(@PathVariable("username") String username){
+    public ResponseEntity<ResponseWrapper> employeePendingTasks(){   // the employee comes from the token
         List<TaskDTO> taskList = taskService.listAllTasksByStatusIsNot(Status.COMPLETE);
         return ResponseEntity.ok(new ResponseWrapper("Pending tasks are successfully retrieved", taskList, HttpStatus.OK));
     }
@@ -87,4 +119,25 @@ public class TaskController {
         return ResponseEntity.ok(new ResponseWrapper("Archived tasks are successfully retrieved",
                 taskService.listAllTasksByStatus(Status.COMPLETE), HttpStatus.OK));
     }
+
+    @GetMapping("/search")
+    @RolesAllowed("Manager")
+    @Operation(summary = "Search tasks by subject and detail")
+    public ResponseEntity<ResponseWrapper> searchTasks(@RequestParam("query") String query,
+                                                       @RequestParam(value = "limit", defaultValue = "20") int limit){
+        return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully retrieved",
+                taskService.search(query, clamp(limit)), HttpStatus.OK));
+    }
+
+    @GetMapping("/search/stats")
+    @RolesAllowed("Manager")
+    @Operation(summary = "Task search index statistics")
+    public ResponseEntity<ResponseWrapper> searchStats(){
+        return ResponseEntity.ok(new ResponseWrapper("Search index statistics are successfully retrieved",
+                taskService.searchStats(), HttpStatus.OK));
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
 }
@@ -1,39 +1,56 @@
 package com.cydeo.controller;
 
 import com.cydeo.annotation.ExecutionTime;
+import com.cydeo.cache.ResponseBodyCache;
 import com.cydeo.dto.ResponseWrapper;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.exception.TicketingProjectException;
 import com.cydeo.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.security.RolesAllowed;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/user")
 @Tag(name = "UserController", description = "User API")
 public class UserController {
 
+    private static final int MAX_SUGGESTIONS = 100;
+
     private final UserService userService;
+    private final ResponseBodyCache responseBodyCache;
 
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ResponseBodyCache responseBodyCache) {
         this.userService = userService;
+        this.responseBodyCache = responseBodyCache;
     }
 
     @ExecutionTime
     @GetMapping
     @RolesAllowed({"Manager", "Admin"})
     @Operation(summary = "Get users")
-    public ResponseEntity<ResponseWrapper> getUsers(){  // see custom output using ResponseWrapper
-        List<UserDTO> userDTOList = userService.listAllUsers();
-        return ResponseEntity.ok(new ResponseWrapper("Users are successfully retrieved", userDTOList, HttpStatus.OK));
-                            //this status is what we see in postman.                                           this status is what we see in Json body
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ResponseWrapper.class)))   // the body is ResponseWrapper, already serialized
+    public ResponseEntity<byte[]> getUsers(@RequestHeader HttpHeaders headers){  // see custom output using ResponseWrapper
+        return responseBodyCache.respond(ResponseBodyCache.USERS, headers,   // served as stored bytes until a user write
+                () -> new ResponseWrapper("Users are successfully retrieved", userService.listAllUsers(), HttpStatus.OK));
+    }
+
+    @GetMapping("/autocomplete")
+    @RolesAllowed({"Manager", "Admin"})
+    @Operation(summary = "Suggest users of a role by name or username prefix")
+    public ResponseEntity<ResponseWrapper> autocomplete(@RequestParam("role") String role,
+                                                        @RequestParam(value = "prefix", defaultValue = "") String prefix,
+                                                        @RequestParam(value = "limit", defaultValue = "10") int limit){
+        return ResponseEntity.ok(new ResponseWrapper("Users are successfully retrieved", userService.suggestByRole(role, prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))), HttpStatus.OK));
     }
 
     @ExecutionTime
@@ -0,0 +1,21 @@
+package com.cydeo.deadline;
+
+import com.cydeo.sql.StatementInterceptingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+
+// Runs every statement within the RequestDeadline of the calling thread, statements without one are left alone
+public class QueryDeadlineDataSource extends StatementInterceptingDataSource {
+
+    public QueryDeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    protected Object execute(Statement statement, String sql, Execution execution) throws Throwable {
+        RequestDeadline.applyTo(statement);
+        return execution.proceed();
+    }
+
+}
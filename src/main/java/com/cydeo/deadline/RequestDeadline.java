@@ -0,0 +1,68 @@
+package com.cydeo.deadline;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// The point in time after which nobody waits for the current request any more. Set per request by
+// RequestDeadlineInterceptor and read by the JDBC statements of the calling thread, so every query of the
+// request runs with the time that is left as its timeout and nothing new starts once it is gone.
+public final class RequestDeadline {
+
+    public static final String SQL_STATE_QUERY_CANCELED = "57014";
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long timeoutMillis;
+    private final long deadlineNanos;
+
+    private RequestDeadline(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    public static RequestDeadline start(long timeoutMillis) {
+        RequestDeadline deadline = new RequestDeadline(timeoutMillis);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    public static void restore(RequestDeadline deadline) {   // back to the enclosing request's deadline, if any
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    // JDBC timeouts are whole seconds, so a statement may overrun the deadline by less than one
+    public static void applyTo(Statement statement) throws SQLException {
+
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) return;
+
+        long remainingMillis = deadline.remainingMillis();
+        if (remainingMillis <= 0) {
+            throw new SQLTimeoutException("Request deadline of " + deadline.timeoutMillis + " ms exceeded", SQL_STATE_QUERY_CANCELED);
+        }
+        statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, (remainingMillis + 999) / 1000));
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.cydeo.deadline;
+
+import com.cydeo.annotation.RequestTimeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Starts the request's deadline: the caller's X-Request-Timeout (ms, capped), else the endpoint's
+// @RequestTimeout, else app.request-timeout.default-ms. A request dispatched inside another one (batch
+// sub-requests) never gets more time than its parent has left.
+@Component
+public class RequestDeadlineInterceptor implements HandlerInterceptor {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private static final String PARENT_ATTRIBUTE = RequestDeadlineInterceptor.class.getName() + ".parent";
+
+    private final long defaultMillis;
+    private final long maxMillis;
+
+    public RequestDeadlineInterceptor(@Value("${app.request-timeout.default-ms:15000}") long defaultMillis,
+                                      @Value("${app.request-timeout.max-ms:60000}") long maxMillis) {
+        this.defaultMillis = defaultMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        if (!(handler instanceof HandlerMethod)) return true;
+
+        RequestDeadline parent = RequestDeadline.current();
+        long timeoutMillis = timeoutOf(request, (HandlerMethod) handler);
+        if (parent != null) {
+            request.setAttribute(PARENT_ATTRIBUTE, parent);
+            timeoutMillis = Math.min(timeoutMillis, Math.max(0, parent.remainingMillis()));
+        }
+
+        RequestDeadline.start(timeoutMillis);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (handler instanceof HandlerMethod) {
+            RequestDeadline.restore((RequestDeadline) request.getAttribute(PARENT_ATTRIBUTE));
+        }
+    }
+
+    private long timeoutOf(HttpServletRequest request, HandlerMethod handlerMethod) {
+
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                long requested = Long.parseLong(header.trim());
+                if (requested > 0) return Math.min(requested, maxMillis);
+            } catch (NumberFormatException ignored) {
+                // fall back to the endpoint's deadline
+            }
+        }
+
+        RequestTimeout requestTimeout = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RequestTimeout.class);
+        if (requestTimeout == null) {
+            requestTimeout = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RequestTimeout.class);
+        }
+        return requestTimeout != null ? requestTimeout.millis() : defaultMillis;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.cydeo.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDTO {   // one sub-request of POST /api/v1/batch
+
+    private String method;
+    private String path;    // e.g. /api/v1/user/role?role=Manager
+
+    private JsonNode body;
+
+}
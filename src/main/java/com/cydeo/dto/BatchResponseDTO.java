@@ -0,0 +1,17 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponseDTO {
+
+    private String method;
+    private String path;
+    private int status;
+    private Object body;    // the sub-request's own response body, usually a ResponseWrapper
+
+}
@@ -0,0 +1,18 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeWorkloadDTO {
+
+    private String userName;
+    private String firstName;
+    private String lastName;
+    private int openTasks;          // across all projects
+    private int projectOpenTasks;   // in the project the recommendation was asked for
+
+}
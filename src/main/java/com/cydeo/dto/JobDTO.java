@@ -0,0 +1,32 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.JobStatus;
+import com.cydeo.enums.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDTO {
+
+    private Long id;
+    private JobType type;
+    private JobStatus status;
+    private String projectCode;
+    private String requestedBy;
+
+    private int totalItems;
+    private int processedItems;
+    private int progress;    // percent
+
+    private String errorMessage;
+
+    private LocalDateTime submittedDateTime;
+    private LocalDateTime startedDateTime;
+    private LocalDateTime finishedDateTime;
+
+}
@@ -0,0 +1,24 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.NotBlank;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectCloneDTO {
+
+    @NotBlank
+    private String projectCode;
+
+    private String projectName;     // the template's name when empty
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;    // end date and task dates move by the same number of days, unchanged when empty
+
+}
@@ -0,0 +1,21 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectOverdueDTO {
+
+    private String projectCode;
+    private String projectName;
+    private Status projectStatus;
+    private LocalDate endDate;
+    private long daysOverdue;
+
+}
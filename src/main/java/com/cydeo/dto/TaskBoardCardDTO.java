@@ -0,0 +1,21 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBoardCardDTO {
+
+    private Long id;
+    private String taskSubject;
+    private String taskDetail;
+    private LocalDate assignedDate;
+    private String assignedEmployeeUserName;
+    private String assignedEmployeeFullName;
+
+}
@@ -0,0 +1,24 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBoardColumnDTO {
+
+    private Status status;
+    private int totalTasks;
+    private List<TaskBoardCardDTO> tasks = new ArrayList<>();   // oldest assigned first, at most the board limit
+
+    public TaskBoardColumnDTO(Status status) {
+        this.status = status;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBoardDTO {
+
+    private String projectCode;
+    private int limit;                          // most tasks listed per column
+    private List<TaskBoardColumnDTO> columns;   // one per status, in Status order, empty ones included
+
+}
@@ -0,0 +1,34 @@
+package com.cydeo.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskReassignDTO {
+
+    @NotBlank
+    private String fromUserName;
+
+    @NotBlank
+    private String toUserName;
+
+    private String projectCode;     // all projects when empty
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int reassignedTasks;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int remainingOpenTasks;  // still on the first employee, 0 once nothing blocks deleting them
+
+    public TaskReassignDTO(String fromUserName, String toUserName, String projectCode) {
+        this.fromUserName = fromUserName;
+        this.toUserName = toUserName;
+        this.projectCode = projectCode;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchStatsDTO {
+
+    private int indexedTasks;
+    private int terms;
+    private long postings;
+    private long estimatedMemoryBytes;
+
+}
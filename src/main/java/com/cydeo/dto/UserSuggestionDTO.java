@@ -0,0 +1,16 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSuggestionDTO {
+
+    private String userName;
+    private String firstName;
+    private String lastName;
+
+}
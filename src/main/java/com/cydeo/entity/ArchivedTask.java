@@ -0,0 +1,55 @@
+package com.cydeo.entity;
+
+import com.cydeo.enums.Status;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Where;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Completed tasks of completed projects, moved out of "tasks" by TaskArchiveJob. Rows keep their task id
+// and are only ever written with INSERT ... SELECT, so the entity is read-only.
+@Entity
+@Immutable
+@Table(name = "archived_tasks", indexes = {
+        @Index(name = "idx_archived_tasks_employee", columnList = "assigned_employee_id"),
+        @Index(name = "idx_archived_tasks_project", columnList = "project_id")})
+@Getter
+@Setter
+@NoArgsConstructor
+@Where(clause = "is_deleted=false")
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    private LocalDateTime insertDateTime;
+    private Long insertUserId;
+    private LocalDateTime lastUpdateDateTime;
+    private Long lastUpdateUserId;
+    private Boolean isDeleted = false;
+
+    private String taskSubject;
+    private String taskDetail;
+
+    @Enumerated(EnumType.STRING)
+    private Status taskStatus;
+
+    @Column(columnDefinition = "DATE")
+    private LocalDate assignedDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assigned_employee_id")
+    private User assignedEmployee;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id")
+    private Project project;
+
+    private LocalDateTime archivedDateTime;
+
+}
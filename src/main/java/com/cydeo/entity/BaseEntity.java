@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 public class BaseEntity {
 
+    public static final Long SYSTEM_USER_ID = 1L;   // audit id of changes made without a login
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,14 +34,14 @@ public class BaseEntity {
     public void onPrePersist() {
         this.insertDateTime = LocalDateTime.now();
         this.lastUpdateDateTime = LocalDateTime.now();
-        this.insertUserId = 1L;
-        this.lastUpdateUserId = 1L;
+        this.insertUserId = SYSTEM_USER_ID;
+        this.lastUpdateUserId = SYSTEM_USER_ID;
     }
 
     @PreUpdate
     public void onPreUpdate() {
         this.lastUpdateDateTime = LocalDateTime.now();
-        this.lastUpdateUserId = 1L;
+        this.lastUpdateUserId = SYSTEM_USER_ID;
     }
 
 }
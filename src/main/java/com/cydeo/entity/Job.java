@@ -0,0 +1,41 @@
+package com.cydeo.entity;
+
+import com.cydeo.enums.JobStatus;
+import com.cydeo.enums.JobType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// A bulk operation accepted over HTTP and carried out by JobServiceImpl in chunks. The row is the source of
+// truth for progress, so QUEUED and RUNNING jobs are picked up again after a restart.
+@Entity
+@Table(name = "jobs", indexes = @Index(name = "idx_jobs_status", columnList = "status"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class Job extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    private JobType type;
+
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+
+    private Long projectId;      // by id: a deleted project is hidden from the entity and has its code renamed
+    private String projectCode;
+
+    private String requestedBy;
+    private Long requestedById;   // audit id of the rows the job changes, it runs without a login
+
+    private int totalItems;
+    private int processedItems;
+
+    private String errorMessage;
+
+    private LocalDateTime startedDateTime;
+    private LocalDateTime finishedDateTime;
+
+}
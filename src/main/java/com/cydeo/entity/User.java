@@ -34,4 +34,9 @@ public class User extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private Gender gender;
 
+    @Column(unique = true)
+    private String keycloakId;   // id of the same user on the identity server, set when it is created there
+
+    private Boolean keycloakIdUnresolved = false;   // looked up once and not found there, not looked up again
+
 }
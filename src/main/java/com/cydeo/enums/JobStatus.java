@@ -0,0 +1,17 @@
+package com.cydeo.enums;
+
+public enum JobStatus {
+
+    QUEUED("Queued"), RUNNING("Running"), COMPLETED("Completed"), FAILED("Failed");
+
+    private final String value;
+
+    JobStatus(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+}
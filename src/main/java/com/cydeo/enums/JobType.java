@@ -0,0 +1,17 @@
+package com.cydeo.enums;
+
+public enum JobType {
+
+    COMPLETE_PROJECT("Complete Project"), DELETE_PROJECT("Delete Project");
+
+    private final String value;
+
+    JobType(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+}
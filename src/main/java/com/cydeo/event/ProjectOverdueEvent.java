@@ -0,0 +1,13 @@
+package com.cydeo.event;
+
+import com.cydeo.dto.ProjectOverdueDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProjectOverdueEvent {   // published once per project when its end date passes while it is not completed
+
+    private final ProjectOverdueDTO project;
+
+}
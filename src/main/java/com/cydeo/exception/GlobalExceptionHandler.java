@@ -1,40 +1,81 @@
 package com.cydeo.exception;
 
 import com.cydeo.annotation.DefaultExceptionMessage;
+import com.cydeo.deadline.RequestDeadline;
 import com.cydeo.dto.DefaultExceptionMessageDto;
 
 import com.cydeo.dto.ResponseWrapper;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.util.ObjectUtils;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.HandlerMethod;
 
+import javax.ws.rs.ProcessingException;
 import java.lang.reflect.Method;
+import java.sql.SQLTimeoutException;
 import java.util.Optional;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {  // whenever exception happens, this class will be executed
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(TicketingProjectException.class)   // whenever exception happens belongs to this class (TicketingProjectException.class), execute this method
     public ResponseEntity<ResponseWrapper> serviceException(TicketingProjectException se){
         String message = se.getMessage();
         return new ResponseEntity<>(ResponseWrapper.builder().success(false).code(HttpStatus.CONFLICT.value()).message(message).build(),HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(MethodArgumentNotValidException.class)   // a @Valid request body failed its constraints
+    public ResponseEntity<ResponseWrapper> validationException(MethodArgumentNotValidException e){
+        String message = e.getBindingResult().getFieldErrors().stream()
+                .map(error -> error.getField() + " " + error.getDefaultMessage())
+                .findFirst().orElse("Invalid request");
+        return new ResponseEntity<>(ResponseWrapper.builder().success(false).code(HttpStatus.BAD_REQUEST.value()).message(message).build(),HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)  // if exception happens that belong to AccessDeniedException.class, execute this method
     public ResponseEntity<ResponseWrapper> accessDeniedException(AccessDeniedException se){
         String message = se.getMessage();
         return new ResponseEntity<>(ResponseWrapper.builder().success(false).code(HttpStatus.FORBIDDEN.value()).message(message).build(),HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class, ProcessingException.class})  // identity server down, saturated or too slow
+    public ResponseEntity<ResponseWrapper> identityServerException(Exception e){
+        return new ResponseEntity<>(ResponseWrapper.builder().success(false).code(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .message("Identity server is unavailable, try again later").build(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler({QueryTimeoutException.class, javax.persistence.QueryTimeoutException.class})  // a query ran into the request deadline, see RequestDeadline
+    public ResponseEntity<ResponseWrapper> requestTimeoutException(Throwable e, HandlerMethod handlerMethod) {
+        RequestDeadline deadline = RequestDeadline.current();
+        meterRegistry.counter("request_deadline.exceeded",
+                "endpoint", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName()).increment();
+        String message = deadline != null ? "Request timed out after " + deadline.getTimeoutMillis() + " ms" : "Request timed out";
+        return new ResponseEntity<>(ResponseWrapper.builder().success(false).code(HttpStatus.GATEWAY_TIMEOUT.value()).message(message).build(), HttpStatus.GATEWAY_TIMEOUT);
+    }
+
     @ExceptionHandler({Exception.class, RuntimeException.class, Throwable.class, BadCredentialsException.class})  // if any exception happens that belongs to any of there three classes, execute this class
     public ResponseEntity<ResponseWrapper> genericException(Throwable e, HandlerMethod handlerMethod) {
 
+        if (causedByTimeout(e)) {   // e.g. a timed out query surfacing from a commit, wrapped in another exception
+            return requestTimeoutException(e, handlerMethod);
+        }
+
         Optional<DefaultExceptionMessageDto> defaultMessage = getMessageFromAnnotation(handlerMethod.getMethod());
         if (defaultMessage.isPresent() && !ObjectUtils.isEmpty(defaultMessage.get().getMessage())) {  // if the method is annotated with my default annotation, it will build the following and show the message
             ResponseWrapper response = ResponseWrapper
@@ -48,6 +89,15 @@ public class GlobalExceptionHandler {  // whenever exception happens, this class
         // if exception happen and method not annotated, it will throw following message
         return new ResponseEntity<>(ResponseWrapper.builder().success(false).message("Action failed: An error occurred!").code(HttpStatus.INTERNAL_SERVER_ERROR.value()).build(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
+    private boolean causedByTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTimeoutException || cause instanceof QueryTimeoutException
+                    || cause instanceof javax.persistence.QueryTimeoutException) return true;
+            if (cause.getCause() == cause) break;
+        }
+        return false;
+    }
+
     private Optional<DefaultExceptionMessageDto> getMessageFromAnnotation(Method method) {
         DefaultExceptionMessage defaultExceptionMessage = method.getAnnotation(DefaultExceptionMessage.class);
         if (defaultExceptionMessage != null) {
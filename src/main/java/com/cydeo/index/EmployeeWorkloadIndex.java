@@ -0,0 +1,190 @@
+package com.cydeo.index;
+
+import com.cydeo.dto.EmployeeWorkloadDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Component
+public class EmployeeWorkloadIndex {   // open (not completed) task counts per employee, kept in least-loaded order
+
+    private static final Comparator<Load> LEAST_LOADED = Comparator.<Load>comparingInt(load -> load.openTasks)
+            .thenComparingLong(load -> load.employeeId);
+
+    private NavigableSet<Load> byLoad = new TreeSet<>(LEAST_LOADED);   // an updatable heap: remove, change, re-add
+    private Map<Long, Load> employees = new HashMap<>();
+    private List<Consumer<EmployeeWorkloadIndex>> missedWrites;   // only while rebuild() loads, replayed onto the new content
+    private Set<Long> missedProjects;                             // projects whose counts changed while rebuild() loaded
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // adds the employee with no tasks, or only refreshes the name of a known one
+    public void putEmployee(Long employeeId, String userName, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            Load load = employees.get(employeeId);
+            if (load == null) {
+                load = new Load(employeeId);
+                employees.put(employeeId, load);
+                byLoad.add(load);
+            }
+            load.userName = userName;
+            load.firstName = firstName;
+            load.lastName = lastName;
+            if (missedWrites != null) missedWrites.add(fresh -> fresh.putEmployee(employeeId, userName, firstName, lastName));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEmployee(Long employeeId) {
+        lock.writeLock().lock();
+        try {
+            Load load = employees.remove(employeeId);
+            if (load != null) byLoad.remove(load);
+            if (missedWrites != null) missedWrites.add(fresh -> fresh.removeEmployee(employeeId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // a task of the project was opened (+1) or completed/deleted/moved away (-1); unknown employees are not candidates
+    public void adjust(Long employeeId, Long projectId, int delta) {
+        if (employeeId == null || projectId == null || delta == 0) return;
+        lock.writeLock().lock();
+        try {
+            Load load = employees.get(employeeId);
+            if (load != null) update(load, projectId, load.projectTasks.getOrDefault(projectId, 0) + delta);
+            if (missedProjects != null) missedProjects.add(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // after a bulk change of one project: its fresh per-employee counts replace whatever was known about it
+    public void replaceProject(Long projectId, Map<Long, Integer> openTasksByEmployee) {
+        lock.writeLock().lock();
+        try {
+            for (Load load : employees.values()) {
+                if (load.projectTasks.containsKey(projectId) || openTasksByEmployee.containsKey(load.employeeId)) {
+                    update(load, projectId, openTasksByEmployee.getOrDefault(load.employeeId, 0));
+                }
+            }
+            if (missedProjects != null) missedProjects.add(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // mirrors a bulk reassignment: every open task of "from", or only those of one project, now belongs to "to"
+    public void move(Long fromEmployeeId, Long toEmployeeId, Long projectId) {
+        lock.writeLock().lock();
+        try {
+            Load from = employees.get(fromEmployeeId);
+            if (from == null) return;
+            Load to = employees.get(toEmployeeId);
+            Set<Long> projectIds = projectId == null ? new HashSet<>(from.projectTasks.keySet()) : Set.of(projectId);
+            if (missedProjects != null) missedProjects.addAll(projectIds);
+            for (Long id : projectIds) {
+                int moved = from.projectTasks.getOrDefault(id, 0);
+                update(from, id, 0);
+                if (to != null) update(to, id, to.projectTasks.getOrDefault(id, 0) + moved);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // loads a new, empty index and swaps it in at once (see TaskSearchIndex). Employee changes made meanwhile are replayed
+    // onto it; task counts are deltas that the loaded rows may already include, so instead the projects they touched
+    // are returned for the caller to read again with replaceProject
+    public synchronized Set<Long> rebuild(Consumer<EmployeeWorkloadIndex> loader) {
+
+        EmployeeWorkloadIndex fresh = new EmployeeWorkloadIndex();
+        setMissedWrites(new ArrayList<>(), new HashSet<>());
+        Set<Long> projectIds;
+        boolean loaded = false;
+        try {
+            loader.accept(fresh);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    missedWrites.forEach(write -> write.accept(fresh));
+                    byLoad = fresh.byLoad;
+                    employees = fresh.employees;
+                }
+                projectIds = missedProjects;
+                missedWrites = null;
+                missedProjects = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return projectIds;
+    }
+
+    // walks the ordered set from the least loaded end, so the cost depends on limit, not on the number of employees
+    public List<EmployeeWorkloadDTO> leastLoaded(Long projectId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<EmployeeWorkloadDTO> result = new ArrayList<>(Math.min(Math.max(limit, 0), employees.size()));
+            for (Load load : byLoad) {
+                if (result.size() >= limit) break;
+                result.add(new EmployeeWorkloadDTO(load.userName, load.firstName, load.lastName,
+                        load.openTasks, load.projectTasks.getOrDefault(projectId, 0)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return employees.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setMissedWrites(List<Consumer<EmployeeWorkloadIndex>> writes, Set<Long> projectIds) {
+        lock.writeLock().lock();
+        try {
+            missedWrites = writes;
+            missedProjects = projectIds;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void update(Load load, Long projectId, int projectTasks) {
+        byLoad.remove(load);   // the set is ordered by openTasks, so it has to be out of the set while that changes
+        load.openTasks += Math.max(projectTasks, 0) - load.projectTasks.getOrDefault(projectId, 0);
+        if (projectTasks > 0) {
+            load.projectTasks.put(projectId, projectTasks);
+        } else {
+            load.projectTasks.remove(projectId);
+        }
+        byLoad.add(load);
+    }
+
+    private static class Load {
+
+        private final long employeeId;
+        private String userName;
+        private String firstName;
+        private String lastName;
+        private int openTasks;
+        private final Map<Long, Integer> projectTasks = new HashMap<>();   // project id -> open tasks, only non-zero ones
+
+        Load(long employeeId) {
+            this.employeeId = employeeId;
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.cydeo.index;
+
+import com.cydeo.dto.ProjectOverdueDTO;
+import com.cydeo.enums.Status;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Component
+public class ProjectDeadlineIndex {   // end dates of projects that are not completed yet, earliest first
+
+    private static final Comparator<Deadline> BY_END_DATE = Comparator.<Deadline, LocalDate>comparing(deadline -> deadline.endDate)
+            .thenComparingLong(deadline -> deadline.projectId);
+
+    private NavigableSet<Deadline> pending = new TreeSet<>(BY_END_DATE);   // not reported as overdue yet, the head is the next one due
+    private NavigableSet<Deadline> overdue = new TreeSet<>(BY_END_DATE);   // already reported by pollOverdue
+    private Map<Long, Deadline> projects = new HashMap<>();
+    private List<Consumer<ProjectDeadlineIndex>> missedWrites;   // only while rebuild() loads, replayed onto the new content
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // a new or changed project; a completed one, or one without an end date, is simply dropped
+    public void put(Long projectId, String projectCode, String projectName, LocalDate endDate, Status projectStatus) {
+        lock.writeLock().lock();
+        try {
+            if (missedWrites != null) missedWrites.add(fresh -> fresh.put(projectId, projectCode, projectName, endDate, projectStatus));
+            removeInternal(projectId);
+            if (endDate == null || projectStatus == Status.COMPLETE) return;
+            Deadline deadline = new Deadline(projectId, projectCode, projectName, endDate, projectStatus);
+            projects.put(projectId, deadline);
+            pending.add(deadline);   // a moved end date is reported again once the new one passes
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // a project read by the loader of rebuild(); one already past its end date counts as reported, so a restart
+    // does not report every overdue project again
+    public void load(Long projectId, String projectCode, String projectName, LocalDate endDate, Status projectStatus, LocalDate today) {
+        lock.writeLock().lock();
+        try {
+            put(projectId, projectCode, projectName, endDate, projectStatus);
+            Deadline deadline = projects.get(projectId);
+            if (deadline != null && deadline.endDate.isBefore(today)) {
+                pending.remove(deadline);
+                overdue.add(deadline);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long projectId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(projectId);
+            if (missedWrites != null) missedWrites.add(fresh -> fresh.remove(projectId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // loads a new, empty index and swaps it in at once, writes made meanwhile are replayed onto it (see TaskSearchIndex)
+    public synchronized void rebuild(Consumer<ProjectDeadlineIndex> loader) {
+
+        ProjectDeadlineIndex fresh = new ProjectDeadlineIndex();
+        setMissedWrites(new ArrayList<>());
+        boolean loaded = false;
+        try {
+            loader.accept(fresh);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    missedWrites.forEach(write -> write.accept(fresh));
+                    pending = fresh.pending;
+                    overdue = fresh.overdue;
+                    projects = fresh.projects;
+                }
+                missedWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // projects whose end date passed since the last call, each one reported once; only looks at the head of the queue
+    public List<ProjectOverdueDTO> pollOverdue(LocalDate today) {
+        lock.writeLock().lock();
+        try {
+            List<ProjectOverdueDTO> due = new ArrayList<>();
+            while (!pending.isEmpty() && pending.first().endDate.isBefore(today)) {
+                Deadline deadline = pending.pollFirst();
+                overdue.add(deadline);
+                due.add(deadline.toDto(today));
+            }
+            return due;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // every project past its end date, most overdue first, whether pollOverdue reported it yet or not
+    public List<ProjectOverdueDTO> overdue(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            List<ProjectOverdueDTO> result = new ArrayList<>();
+            Iterator<Deadline> reported = overdue.iterator();
+            Iterator<Deadline> notReported = pending.iterator();
+            Deadline a = next(reported, today);
+            Deadline b = next(notReported, today);
+            while (a != null || b != null) {   // merge of two sorted runs
+                if (b == null || (a != null && BY_END_DATE.compare(a, b) <= 0)) {
+                    result.add(a.toDto(today));
+                    a = next(reported, today);
+                } else {
+                    result.add(b.toDto(today));
+                    b = next(notReported, today);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return projects.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setMissedWrites(List<Consumer<ProjectDeadlineIndex>> writes) {
+        lock.writeLock().lock();
+        try {
+            missedWrites = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Deadline next(Iterator<Deadline> deadlines, LocalDate today) {
+        if (!deadlines.hasNext()) return null;
+        Deadline deadline = deadlines.next();
+        return deadline.endDate.isBefore(today) ? deadline : null;
+    }
+
+    private void removeInternal(Long projectId) {
+        Deadline deadline = projects.remove(projectId);
+        if (deadline == null) return;
+        pending.remove(deadline);
+        overdue.remove(deadline);
+    }
+
+    private static class Deadline {
+
+        private final long projectId;
+        private final String projectCode;
+        private final String projectName;
+        private final LocalDate endDate;
+        private final Status projectStatus;
+
+        Deadline(long projectId, String projectCode, String projectName, LocalDate endDate, Status projectStatus) {
+            this.projectId = projectId;
+            this.projectCode = projectCode;
+            this.projectName = projectName;
+            this.endDate = endDate;
+            this.projectStatus = projectStatus;
+        }
+
+        ProjectOverdueDTO toDto(LocalDate today) {
+            return new ProjectOverdueDTO(projectCode, projectName, projectStatus, endDate, ChronoUnit.DAYS.between(endDate, today));
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+package com.cydeo.index;
+
+import com.cydeo.dto.TaskSearchStatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Component
+public class TaskSearchIndex {   // in-memory inverted index over task subject and detail
+
+    private static final int SUBJECT_WEIGHT = 2;           // a word in the subject counts twice as much as a word in the detail
+    private static final double PREFIX_WEIGHT = 0.5;       // "sprin" matching "spring" ranks below an exact "spring"
+    private static final int MAX_PREFIX_EXPANSIONS = 64;   // keeps short prefixes like "a" from touching the whole dictionary
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private NavigableMap<String, Postings> terms = new TreeMap<>();   // sorted, so a prefix lookup is a range scan
+    private Map<Long, String[]> documents = new HashMap<>();          // task id -> its terms, needed to un-index on update/delete
+    private List<Consumer<TaskSearchIndex>> missedWrites;             // only while rebuild() loads, replayed onto the new content
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(Long taskId, String subject, String detail) {
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(subject).forEach(term -> frequencies.merge(term, SUBJECT_WEIGHT, Integer::sum));
+        tokenize(detail).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(taskId);
+            String[] documentTerms = new String[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Postings postings = terms.computeIfAbsent(entry.getKey(), term -> new Postings());
+                postings.put(taskId, entry.getValue());
+                documentTerms[i++] = terms.ceilingKey(entry.getKey());  // share the dictionary's String instance
+            }
+            documents.put(taskId, documentTerms);
+            if (missedWrites != null) missedWrites.add(fresh -> fresh.index(taskId, subject, detail));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(taskId);
+            if (missedWrites != null) missedWrites.add(fresh -> fresh.remove(taskId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // the loader fills a new, empty index and that is swapped in at once, so searches never see a half-built one;
+    // writes made while it loads still go to the current content and are replayed onto the new one before the swap
+    public synchronized void rebuild(Consumer<TaskSearchIndex> loader) {
+
+        TaskSearchIndex fresh = new TaskSearchIndex();
+        setMissedWrites(new ArrayList<>());
+        boolean loaded = false;
+        try {
+            loader.accept(fresh);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    missedWrites.forEach(write -> write.accept(fresh));
+                    terms = fresh.terms;
+                    documents = fresh.documents;
+                }
+                missedWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // every query word has to match (exactly or as a prefix); hits are ranked by tf-idf
+    public List<Long> search(String query, int limit) {
+
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = scoreTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((taskId, score) -> score + termScores.get(taskId));
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+            return topHits(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TaskSearchStatsDTO stats() {
+        lock.readLock().lock();
+        try {
+            long postingCount = 0;
+            long bytes = 0;
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                postingCount += entry.getValue().size;
+                bytes += 40 + 2L * entry.getKey().length()       // String + its characters
+                        + 40                                      // TreeMap entry
+                        + 48 + 12L * entry.getValue().capacity(); // Postings object, long[] ids and int[] frequencies
+            }
+            for (String[] documentTerms : documents.values()) {
+                bytes += 48 + 16 + 16 + 4L * documentTerms.length; // HashMap entry, boxed id, term array
+            }
+            return new TaskSearchStatsDTO(documents.size(), terms.size(), postingCount, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setMissedWrites(List<Consumer<TaskSearchIndex>> writes) {
+        lock.writeLock().lock();
+        try {
+            missedWrites = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String queryTerm) {
+
+        Map<Long, Double> termScores = new HashMap<>();
+
+        Postings exact = terms.get(queryTerm);
+        if (exact != null) exact.accumulate(1.0, documents.size(), termScores);
+
+        int expansions = 0;
+        for (Postings postings : terms.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).values()) {
+            if (expansions++ == MAX_PREFIX_EXPANSIONS) break;
+            postings.accumulate(PREFIX_WEIGHT, documents.size(), termScores);
+        }
+        return termScores;
+    }
+
+    private List<Long> topHits(Map<Long, Double> scores, int limit) {
+
+        Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));   // newer tasks win ties
+
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(limit + 1, byScore);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) heap.poll();
+        }
+
+        LinkedList<Long> hits = new LinkedList<>();
+        while (!heap.isEmpty()) hits.addFirst(heap.poll().getKey());
+        return hits;
+    }
+
+    private void removeInternal(Long taskId) {
+        String[] documentTerms = documents.remove(taskId);
+        if (documentTerms == null) return;
+        for (String term : documentTerms) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(taskId) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+
+        if (text == null || text.isBlank()) return List.of();
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    // task ids kept sorted in primitive arrays; ids come from an identity column, so inserts are mostly appends
+    private static class Postings {
+
+        private long[] taskIds = new long[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void put(long taskId, int frequency) {
+            int position = Arrays.binarySearch(taskIds, 0, size, taskId);
+            if (position >= 0) {
+                frequencies[position] = frequency;
+                return;
+            }
+            position = -position - 1;
+            if (size == taskIds.length) {
+                taskIds = Arrays.copyOf(taskIds, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(taskIds, position, taskIds, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            taskIds[position] = taskId;
+            frequencies[position] = frequency;
+            size++;
+        }
+
+        boolean remove(long taskId) {
+            int position = Arrays.binarySearch(taskIds, 0, size, taskId);
+            if (position < 0) return false;
+            System.arraycopy(taskIds, position + 1, taskIds, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        void accumulate(double weight, int documentCount, Map<Long, Double> scores) {
+            double idf = Math.log(1 + (double) documentCount / size);
+            for (int i = 0; i < size; i++) {
+                scores.merge(taskIds[i], weight * (1 + Math.log(frequencies[i])) * idf, Double::sum);
+            }
+        }
+
+        int capacity() {
+            return taskIds.length;
+        }
+    }
+
+}
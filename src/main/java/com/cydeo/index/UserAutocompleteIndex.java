@@ -0,0 +1,185 @@
+package com.cydeo.index;
+
+import com.cydeo.dto.UserSuggestionDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Component
+public class UserAutocompleteIndex {   // one trie per role over first name, last name, "first last" and username
+
+    private Map<String, Node> roots = new HashMap<>();     // lower-case role description -> its trie
+    private Map<Long, Entry> users = new HashMap<>();      // user id -> what was indexed, needed to un-index on update/delete
+    private List<Consumer<UserAutocompleteIndex>> missedWrites;   // only while rebuild() loads, replayed onto the new content
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // a new or changed user; without a role description the user stays under the role it already had
+    public void put(Long userId, String userName, String firstName, String lastName, String role) {
+        lock.writeLock().lock();
+        try {
+            if (missedWrites != null) missedWrites.add(fresh -> fresh.put(userId, userName, firstName, lastName, role));
+            Entry previous = removeInternal(userId);
+            String roleKey = role != null ? role.toLowerCase(Locale.ROOT) : previous != null ? previous.role : null;
+            if (roleKey == null) return;
+
+            Entry entry = new Entry(userName, firstName, lastName, roleKey);
+            Node root = roots.computeIfAbsent(roleKey, key -> new Node());
+            for (String key : entry.keys) insert(root, key, userId);
+            users.put(userId, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(userId);
+            if (missedWrites != null) missedWrites.add(fresh -> fresh.remove(userId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // loads a new, empty index and swaps it in at once, writes made meanwhile are replayed onto it (see TaskSearchIndex)
+    public synchronized void rebuild(Consumer<UserAutocompleteIndex> loader) {
+
+        UserAutocompleteIndex fresh = new UserAutocompleteIndex();
+        setMissedWrites(new ArrayList<>());
+        boolean loaded = false;
+        try {
+            loader.accept(fresh);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    missedWrites.forEach(write -> write.accept(fresh));
+                    roots = fresh.roots;
+                    users = fresh.users;
+                }
+                missedWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // users whose name or username starts with the prefix, in alphabetical order of the matching key
+    public List<UserSuggestionDTO> suggest(String role, String prefix, int limit) {
+
+        if (role == null || limit <= 0) return List.of();
+        String normalized = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            Node node = roots.get(role.toLowerCase(Locale.ROOT));
+            for (int i = 0; node != null && i < normalized.length(); i++) {
+                node = node.children.get(normalized.charAt(i));
+            }
+            if (node == null) return List.of();
+
+            Set<Long> matches = new LinkedHashSet<>();   // a user can match on several keys, listed once
+            collect(node, matches, limit);
+
+            List<UserSuggestionDTO> suggestions = new ArrayList<>(matches.size());
+            for (Long userId : matches) {
+                Entry entry = users.get(userId);
+                suggestions.add(new UserSuggestionDTO(entry.userName, entry.firstName, entry.lastName));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setMissedWrites(List<Consumer<UserAutocompleteIndex>> writes) {
+        lock.writeLock().lock();
+        try {
+            missedWrites = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // depth first in character order, so it stops as soon as "limit" users are found
+    private boolean collect(Node node, Set<Long> matches, int limit) {
+        for (Long userId : node.userIds) {
+            matches.add(userId);
+            if (matches.size() == limit) return true;
+        }
+        for (Node child : node.children.values()) {
+            if (collect(child, matches, limit)) return true;
+        }
+        return false;
+    }
+
+    private void insert(Node root, String key, Long userId) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), character -> new Node());
+        }
+        node.userIds.add(userId);
+    }
+
+    private Entry removeInternal(Long userId) {
+        Entry entry = users.remove(userId);
+        if (entry == null) return null;
+        Node root = roots.get(entry.role);
+        for (String key : entry.keys) delete(root, key, 0, userId);
+        return entry;
+    }
+
+    private boolean delete(Node node, String key, int depth, Long userId) {   // true when the node is left empty and can go
+        if (depth == key.length()) {
+            node.userIds.remove(userId);
+        } else {
+            Node child = node.children.get(key.charAt(depth));
+            if (child != null && delete(child, key, depth + 1, userId)) node.children.remove(key.charAt(depth));
+        }
+        return node.userIds.isEmpty() && node.children.isEmpty();
+    }
+
+    private static class Node {
+
+        private final NavigableMap<Character, Node> children = new TreeMap<>();
+        private final Set<Long> userIds = new TreeSet<>();   // users with a key ending here, a stable order for equal keys
+    }
+
+    private static class Entry {
+
+        private final String userName;
+        private final String firstName;
+        private final String lastName;
+        private final String role;
+        private final Set<String> keys = new HashSet<>();
+
+        Entry(String userName, String firstName, String lastName, String role) {
+            this.userName = userName;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.role = role;
+            addKey(userName);
+            addKey(firstName);
+            addKey(lastName);
+            if (firstName != null && lastName != null) addKey(firstName + " " + lastName);
+        }
+
+        private void addKey(String key) {
+            if (key != null && !key.isBlank()) keys.add(key.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.cydeo.job;
+
+import com.cydeo.entity.User;
+import com.cydeo.repository.UserRepository;
+import com.cydeo.service.KeycloakService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+// Looks up the keycloak id of users created before it was stored on the user row, on a scheduler thread so
+// a slow keycloak does not hold up the start. Users keycloak does not know are marked unresolved and not looked
+// up again (deletes and updates then skip keycloak for them), so once every user has been tried a start only
+// costs one empty query; switch it off with app.keycloak.id-backfill.enabled=false.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.keycloak.id-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class KeycloakIdBackfillJob {
+
+    private final UserRepository userRepository;
+    private final KeycloakService keycloakService;
+    private final TaskScheduler taskScheduler;
+    private final int batchSize;
+    private final boolean trainingRun;   // StartupConfig, the app exits right after starting
+
+    public KeycloakIdBackfillJob(UserRepository userRepository, KeycloakService keycloakService, TaskScheduler taskScheduler,
+                                 @Value("${app.keycloak.id-backfill.batch-size:100}") int batchSize,
+                                 @Value("${app.startup.training-run:false}") boolean trainingRun) {
+        this.userRepository = userRepository;
+        this.keycloakService = keycloakService;
+        this.taskScheduler = taskScheduler;
+        this.batchSize = batchSize;
+        this.trainingRun = trainingRun;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (trainingRun) return;   // no keycloak calls from a training run
+        taskScheduler.schedule(this::backfill, new Date());
+    }
+
+    public void backfill() {
+
+        long start = System.currentTimeMillis();
+        int resolved = 0;
+        int unknown = 0;
+        long lastId = 0;
+        List<User> users;
+        do {
+            users = userRepository.findWithoutKeycloakId(lastId, PageRequest.of(0, batchSize));   // keyset, a failed lookup leaves its user in the result
+            for (User user : users) {
+                lastId = user.getId();
+                String keycloakId;
+                try {
+                    keycloakId = keycloakService.findIdByUserName(user.getUserName());
+                } catch (RuntimeException e) {   // the next start carries on with the users left
+                    log.warn("Keycloak is unavailable, id backfill stopped after {} users: {}", resolved, e.toString());
+                    return;
+                }
+                if (keycloakId == null) {
+                    userRepository.markKeycloakIdUnresolved(user.getId());
+                    unknown++;
+                } else {
+                    userRepository.updateKeycloakId(user.getId(), keycloakId);
+                    resolved++;
+                }
+            }
+        } while (users.size() == batchSize);
+
+        if (resolved + unknown > 0) {
+            log.info("Backfilled keycloak ids in {} ms - Resolved: {}, Not in keycloak: {}",
+                    System.currentTimeMillis() - start, resolved, unknown);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.cydeo.job;
+
+import com.cydeo.dto.ProjectOverdueDTO;
+import com.cydeo.event.ProjectOverdueEvent;
+import com.cydeo.index.ProjectDeadlineIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Reports projects that passed their end date without being completed. Each run only looks at the head of
+// ProjectDeadlineIndex, so running it every minute costs nothing while no deadline is due.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.project-deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class ProjectDeadlineJob {
+
+    private final ProjectDeadlineIndex projectDeadlineIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    public ProjectDeadlineJob(ProjectDeadlineIndex projectDeadlineIndex, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.projectDeadlineIndex = projectDeadlineIndex;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(initialDelayString = "${app.project-deadline.interval-ms:60000}", fixedDelayString = "${app.project-deadline.interval-ms:60000}")
+    public void check() {
+
+        List<ProjectOverdueDTO> overdue = projectDeadlineIndex.pollOverdue(LocalDate.now());
+
+        for (ProjectOverdueDTO project : overdue) {
+            log.warn("Project {} is overdue, end date was {}", project.getProjectCode(), project.getEndDate());
+            meterRegistry.counter("project.overdue").increment();
+            eventPublisher.publishEvent(new ProjectOverdueEvent(project));
+        }
+    }
+
+}
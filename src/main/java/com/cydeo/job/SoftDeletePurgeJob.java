@@ -0,0 +1,95 @@
+package com.cydeo.job;
+
+import com.cydeo.repository.ArchivedTaskRepository;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntUnaryOperator;
+
+// Physically removes soft-deleted rows once they are older than the retention window. Every batch is a
+// single short DELETE in its own transaction, with a pause in between, so locks are never held for long.
+// Children go first (tasks, then projects, then users), so foreign keys never block a batch.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class SoftDeletePurgeJob {
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Duration retention;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final int maxBatchesPerTable;
+
+    public SoftDeletePurgeJob(TaskRepository taskRepository, ArchivedTaskRepository archivedTaskRepository,
+                              ProjectRepository projectRepository, UserRepository userRepository, MeterRegistry meterRegistry,
+                              @Value("${app.purge.retention:30d}") Duration retention,
+                              @Value("${app.purge.batch-size:200}") int batchSize,
+                              @Value("${app.purge.pause-ms:100}") long pauseMillis,
+                              @Value("${app.purge.max-batches-per-table:500}") int maxBatchesPerTable) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.maxBatchesPerTable = maxBatchesPerTable;
+    }
+
+    @Scheduled(cron = "${app.purge.cron:0 30 3 * * *}")
+    public void purge() {
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        int tasks = purge("tasks", limit -> taskRepository.purgeDeleted(cutoff, limit));
+        int archivedTasks = purge("archived_tasks", limit -> archivedTaskRepository.purgeDeleted(cutoff, limit));
+        int projects = purge("projects", limit -> projectRepository.purgeDeleted(cutoff, limit));
+        int users = purge("users", limit -> userRepository.purgeDeleted(cutoff, limit));
+
+        long millis = Duration.ofNanos(sample.stop(meterRegistry.timer("purge.run"))).toMillis();
+        log.info("Purged rows deleted before {} in {} ms - Tasks: {}, Archived tasks: {}, Projects: {}, Users: {}",
+                cutoff, millis, tasks, archivedTasks, projects, users);
+    }
+
+    private int purge(String table, IntUnaryOperator deleteBatch) {
+
+        Counter purged = meterRegistry.counter("purge.rows", "table", table);
+        int total = 0;
+
+        for (int batch = 1; batch <= maxBatchesPerTable; batch++) {
+            int deleted = deleteBatch.applyAsInt(batchSize);
+            purged.increment(deleted);
+            total += deleted;
+
+            if (deleted < batchSize) break;
+
+            log.debug("Purging {}: {} rows so far", table, total);
+            try {
+                Thread.sleep(pauseMillis);   // let regular traffic and vacuum catch up between batches
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.cydeo.job;
+
+import com.cydeo.service.TaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Moves completed tasks of completed projects into archived_tasks, one short transaction per batch,
+// so "tasks" only holds work that can still change.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.task-archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiveJob {
+
+    private final TaskService taskService;
+    private final int batchSize;
+
+    public TaskArchiveJob(TaskService taskService, @Value("${app.task-archive.batch-size:500}") int batchSize) {
+        this.taskService = taskService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.task-archive.interval-ms:600000}", fixedDelayString = "${app.task-archive.interval-ms:600000}")
+    public void archive() {
+
+        long start = System.currentTimeMillis();
+        int total = 0;
+        int archived;
+        do {
+            archived = taskService.archiveCompletedTasks(batchSize);
+            total += archived;
+        } while (archived == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} completed tasks in {} ms", total, System.currentTimeMillis() - start);
+        }
+    }
+
+}
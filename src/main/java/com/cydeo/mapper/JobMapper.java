@@ -0,0 +1,31 @@
+package com.cydeo.mapper;
+
+import com.cydeo.dto.JobDTO;
+import com.cydeo.entity.Job;
+import com.cydeo.enums.JobStatus;
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JobMapper {
+
+    private final ModelMapper modelMapper;
+
+    public JobMapper(ModelMapper modelMapper) {
+        this.modelMapper = modelMapper;
+    }
+
+    public JobDTO convertToDto(Job entity){
+
+        JobDTO dto = modelMapper.map(entity, JobDTO.class);
+        dto.setSubmittedDateTime(entity.getInsertDateTime());
+
+        if (entity.getStatus() == JobStatus.COMPLETED) {
+            dto.setProgress(100);
+        } else if (entity.getTotalItems() > 0) {
+            dto.setProgress((int) Math.min(99, 100L * entity.getProcessedItems() / entity.getTotalItems()));
+        }
+        return dto;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.cydeo.mapper;
 
 import com.cydeo.dto.TaskDTO;
+import com.cydeo.entity.ArchivedTask;
 import com.cydeo.entity.Task;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
@@ -21,4 +22,8 @@ public class TaskMapper {
     public TaskDTO convertToDto(Task entity){
         return modelMapper.map(entity,TaskDTO.class);
     }
+
+    public TaskDTO convertToDto(ArchivedTask entity){
+        return modelMapper.map(entity,TaskDTO.class);
+    }
 }
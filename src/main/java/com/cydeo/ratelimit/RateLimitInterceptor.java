@@ -0,0 +1,121 @@
+package com.cydeo.ratelimit;
+
+import com.cydeo.dto.ResponseWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.annotation.security.RolesAllowed;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Admission control in front of the controllers: one bucket per user and endpoint, sized by the
+// @RolesAllowed role the user calls it with (app.rate-limit.roles.<role>.*, else app.rate-limit.default.*).
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ROLE_PREFIX = "ROLE_";   // added by the SimpleAuthorityMapper in SecurityConfig
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(TokenBucketRateLimiter rateLimiter, Environment environment, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(handler instanceof HandlerMethod) || authentication == null || !(authentication.getDetails() instanceof SimpleKeycloakAccount)) {
+            return true;   // anonymous calls are rejected by security anyway
+        }
+
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String username = ((SimpleKeycloakAccount) authentication.getDetails()).getKeycloakSecurityContext().getToken().getPreferredUsername();
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        String role = callingRole(handlerMethod, authentication);
+        Limit limit = limitOf(role);
+
+        long waitNanos = rateLimiter.tryAcquire(username + "|" + endpoint, limit.requestsPerSecond, limit.burst);
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        meterRegistry.counter("rate_limit.rejected", "role", role, "endpoint", endpoint).increment();
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));   // round up
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ResponseWrapper.builder().success(false)
+                .code(HttpStatus.TOO_MANY_REQUESTS.value()).message("Too many requests, retry in " + retryAfterSeconds + " s").build());
+        return false;
+    }
+
+    // the most generous of the endpoint's roles the user holds; "default" when nothing matches
+    private String callingRole(HandlerMethod handlerMethod, Authentication authentication) {
+
+        RolesAllowed rolesAllowed = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RolesAllowed.class);
+        if (rolesAllowed == null) {
+            rolesAllowed = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RolesAllowed.class);
+        }
+        if (rolesAllowed == null) {
+            return "default";
+        }
+
+        String role = "default";
+        for (String allowed : rolesAllowed.value()) {
+            boolean held = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).anyMatch((ROLE_PREFIX + allowed)::equals);
+            if (held && ("default".equals(role) || limitOf(allowed).requestsPerSecond > limitOf(role).requestsPerSecond)) {
+                role = allowed;
+            }
+        }
+        return role;
+    }
+
+    private Limit limitOf(String role) {
+        return limits.computeIfAbsent(role, this::loadLimit);
+    }
+
+    private Limit loadLimit(String role) {
+        double defaultRate = environment.getProperty("app.rate-limit.default.requests-per-second", Double.class, 20.0);
+        int defaultBurst = environment.getProperty("app.rate-limit.default.burst", Integer.class, 40);
+        return new Limit(
+                environment.getProperty("app.rate-limit.roles." + role + ".requests-per-second", Double.class, defaultRate),
+                environment.getProperty("app.rate-limit.roles." + role + ".burst", Integer.class, defaultBurst));
+    }
+
+    private static class Limit {
+
+        private final double requestsPerSecond;
+        private final int burst;
+
+        Limit(double requestsPerSecond, int burst) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+}
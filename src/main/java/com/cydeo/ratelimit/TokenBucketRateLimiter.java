@@ -0,0 +1,50 @@
+package com.cydeo.ratelimit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket in its GCRA form: each key stores only the time at which its bucket will be full again
+// ("theoretical arrival time"), updated with a CAS, so there are no locks and no refill thread.
+@Component
+public class TokenBucketRateLimiter {
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    // 0 when the request is admitted, otherwise how many nanoseconds to wait before retrying
+    public long tryAcquire(String key, double requestsPerSecond, int burst) {
+
+        long emissionInterval = (long) (1_000_000_000L / requestsPerSecond);
+        long burstTolerance = emissionInterval * burst;
+        AtomicLong arrival = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrival.get();
+            long theoreticalArrival = Math.max(current, now);
+            long next = theoreticalArrival + emissionInterval;
+            long allowedAt = next - burstTolerance;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // a bucket whose arrival time has passed is full again, exactly like a missing one
+    @Scheduled(fixedDelayString = "${app.rate-limit.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(arrival -> arrival.get() < now);
+    }
+
+}
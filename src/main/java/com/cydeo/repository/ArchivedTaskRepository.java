@@ -0,0 +1,73 @@
+package com.cydeo.repository;
+
+import com.cydeo.entity.ArchivedTask;
+import com.cydeo.entity.User;
+import com.cydeo.repository.projection.TaskSearchView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    List<ArchivedTask> findAllByAssignedEmployee(User user);
+
+    @Query("SELECT a.id FROM ArchivedTask a WHERE a.project.id = ?1")
+    List<Long> findIdsByProject(Long projectId);
+
+    // archived tasks stay searchable, the search index is built from both tables
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id AS id, a.taskSubject AS taskSubject, a.taskDetail AS taskDetail FROM ArchivedTask a")
+    Stream<TaskSearchView> streamAllForSearch();
+
+    @Query(value = "SELECT COUNT(*) " +
+            "FROM archived_tasks t JOIN projects p on t.project_id=p.id " +
+            "WHERE p.project_code=?1 AND t.is_deleted=false", nativeQuery = true)
+    int totalArchivedTasks(String projectCode);
+
+    @Query(value = "SELECT t.id FROM tasks t JOIN projects p ON t.project_id=p.id " +
+            "WHERE t.task_status='COMPLETE' AND p.project_status='COMPLETE' AND t.is_deleted=false " +
+            "ORDER BY t.id LIMIT ?1", nativeQuery = true)
+    List<Long> findArchivableTaskIds(int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO archived_tasks(id, insert_date_time, insert_user_id, last_update_date_time, last_update_user_id, " +
+            "is_deleted, task_subject, task_detail, task_status, assigned_date, assigned_employee_id, project_id, archived_date_time) " +
+            "SELECT t.id, t.insert_date_time, t.insert_user_id, t.last_update_date_time, t.last_update_user_id, " +
+            "t.is_deleted, t.task_subject, t.task_detail, t.task_status, t.assigned_date, t.assigned_employee_id, t.project_id, CURRENT_TIMESTAMP " +
+            "FROM tasks t WHERE t.id IN ?1", nativeQuery = true)
+    int copyToArchive(List<Long> taskIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE id IN ?1", nativeQuery = true)
+    int deleteFromHot(List<Long> taskIds);
+
+    // project cloning: tasks a completed template already moved out of "tasks" come back as OPEN tasks of the copy
+    @Modifying
+    @Query(value = "INSERT INTO tasks(insert_date_time, insert_user_id, is_deleted, last_update_date_time, last_update_user_id, " +
+            "task_subject, task_detail, task_status, assigned_date, assigned_employee_id, project_id) " +
+            "SELECT CURRENT_TIMESTAMP, ?4, false, CURRENT_TIMESTAMP, ?4, " +
+            "a.task_subject, a.task_detail, 'OPEN', a.assigned_date + CAST(?3 AS INTEGER), a.assigned_employee_id, ?2 " +
+            "FROM archived_tasks a WHERE a.project_id=?1 AND a.is_deleted=false ORDER BY a.id", nativeQuery = true)
+    int copyToProject(Long sourceProjectId, Long targetProjectId, int shiftDays, Long userId);
+
+    @Modifying
+    @Query(value = "UPDATE archived_tasks SET is_deleted=true, last_update_date_time=CURRENT_TIMESTAMP, last_update_user_id=?2 " +
+            "WHERE project_id=?1", nativeQuery = true)
+    int softDeleteByProject(Long projectId, Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM archived_tasks WHERE id IN (" +
+            "SELECT id FROM archived_tasks WHERE is_deleted=true AND last_update_date_time < ?1 ORDER BY id LIMIT ?2)", nativeQuery = true)
+    int purgeDeleted(LocalDateTime deletedBefore, int limit);
+
+}
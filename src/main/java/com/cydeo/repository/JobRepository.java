@@ -0,0 +1,19 @@
+package com.cydeo.repository;
+
+import com.cydeo.entity.Job;
+import com.cydeo.enums.JobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.Optional;
+
+public interface JobRepository extends JpaRepository<Job,Long> {
+
+    List<Job> findAllByStatusInOrderById(List<JobStatus> statuses);
+
+    @Override
+    @Transactional   // read from the primary, a worker picks a job up right after its commit and a replica may not have it yet
+    Optional<Job> findById(Long id);
+
+}
@@ -4,8 +4,13 @@ import com.cydeo.dto.UserDTO;
 import com.cydeo.entity.Project;
 import com.cydeo.entity.User;
 import com.cydeo.enums.Status;
+import com.cydeo.repository.projection.ProjectDeadlineView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ProjectRepository extends JpaRepository<Project,Long> {
@@ -14,4 +19,18 @@ public interface ProjectRepository extends JpaRepository<Project,Long> {
     List<Project> findAllByAssignedManager(User manager);
     List<Project> findAllByProjectStatusIsNotAndAssignedManager(Status status, User assignedManager);
 
+    @Query("SELECT p.id AS id, p.projectCode AS projectCode, p.projectName AS projectName, p.endDate AS endDate, " +
+            "p.projectStatus AS projectStatus FROM Project p WHERE p.projectStatus <> ?1")
+    List<ProjectDeadlineView> findAllDeadlinesByProjectStatusIsNot(Status status);
+
+    // projects still referenced by a task (e.g. one deleted inside the retention window) are kept for a later run
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM projects WHERE id IN (" +
+            "SELECT p.id FROM projects p WHERE p.is_deleted=true AND p.last_update_date_time < ?1 " +
+            "AND NOT EXISTS (SELECT 1 FROM tasks t WHERE t.project_id=p.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM archived_tasks a WHERE a.project_id=p.id) " +
+            "ORDER BY p.id LIMIT ?2)", nativeQuery = true)
+    int purgeDeleted(LocalDateTime deletedBefore, int limit);
+
 }
@@ -4,10 +4,22 @@ import com.cydeo.entity.Project;
 import com.cydeo.entity.Task;
 import com.cydeo.entity.User;
 import com.cydeo.enums.Status;
+import com.cydeo.repository.projection.EmployeeWorkloadView;
+import com.cydeo.repository.projection.TaskBoardView;
+import com.cydeo.repository.projection.TaskSearchView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface TaskRepository extends JpaRepository<Task,Long> {
 
@@ -22,8 +34,94 @@ public interface TaskRepository extends JpaRepository<Task,Long> {
 
     List<Task> findAllByProject(Project project);
 
+    // by project id, so the deleted (and hidden) project itself is never joined
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = ?1")
+    int totalTasksByProject(Long projectId);
+
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = ?1 AND t.taskStatus <> 'COMPLETE'")
+    int totalNonCompletedTasksByProject(Long projectId);
+
+    @Query("SELECT t.id FROM Task t WHERE t.project.id = ?1 ORDER BY t.id")
+    List<Long> findIdsByProject(Long projectId, Pageable pageable);
+
+    @Query("SELECT t.id FROM Task t WHERE t.project.id = ?1 AND t.taskStatus <> 'COMPLETE' ORDER BY t.id")
+    List<Long> findNonCompletedIdsByProject(Long projectId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.taskStatus = 'COMPLETE', t.lastUpdateDateTime = CURRENT_TIMESTAMP, t.lastUpdateUserId = ?2 WHERE t.id IN ?1")
+    int completeAll(List<Long> taskIds, Long userId);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.isDeleted = true, t.lastUpdateDateTime = CURRENT_TIMESTAMP, t.lastUpdateUserId = ?2 WHERE t.id IN ?1")
+    int softDeleteAll(List<Long> taskIds, Long userId);
+
+    // workload index: one row per employee and project with open tasks, plus one row (no project) per idle employee
+    @Query(value = "SELECT u.id AS employeeId, u.user_name AS userName, u.first_name AS firstName, u.last_name AS lastName, " +
+            "t.project_id AS projectId, COUNT(t.id) AS openTasks " +
+            "FROM users u JOIN roles r ON u.role_id=r.id " +
+            "LEFT JOIN tasks t ON t.assigned_employee_id=u.id AND t.is_deleted=false AND t.task_status<>'COMPLETE' " +
+            "WHERE r.description='Employee' AND u.is_deleted=false " +
+            "GROUP BY u.id, u.user_name, u.first_name, u.last_name, t.project_id", nativeQuery = true)
+    List<EmployeeWorkloadView> findEmployeeWorkloads();
+
+    @Query("SELECT t.assignedEmployee.id AS employeeId, t.project.id AS projectId, COUNT(t) AS openTasks FROM Task t " +
+            "WHERE t.project.id = ?1 AND t.taskStatus <> 'COMPLETE' GROUP BY t.assignedEmployee.id, t.project.id")
+    List<EmployeeWorkloadView> findEmployeeWorkloadsByProject(Long projectId);
+
+    // board of one project: the first ?2 tasks of every status plus the status total, already in board order;
+    // archived tasks are all COMPLETE and fill that column together with the completed ones still in "tasks"
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT b.id AS id, b.task_subject AS taskSubject, b.task_detail AS taskDetail, b.task_status AS taskStatus, " +
+            "b.assigned_date AS assignedDate, b.user_name AS userName, b.first_name AS firstName, b.last_name AS lastName, " +
+            "b.status_count AS statusCount FROM (" +
+            "SELECT t.id, t.task_subject, t.task_detail, t.task_status, t.assigned_date, u.user_name, u.first_name, u.last_name, " +
+            "ROW_NUMBER() OVER (PARTITION BY t.task_status ORDER BY t.assigned_date, t.id) AS position, " +
+            "COUNT(*) OVER (PARTITION BY t.task_status) AS status_count " +
+            "FROM (SELECT id, task_subject, task_detail, task_status, assigned_date, assigned_employee_id, project_id, is_deleted FROM tasks " +
+            "UNION ALL SELECT id, task_subject, task_detail, task_status, assigned_date, assigned_employee_id, project_id, is_deleted FROM archived_tasks) t " +
+            "JOIN projects p ON t.project_id=p.id LEFT JOIN users u ON t.assigned_employee_id=u.id " +
+            "WHERE p.project_code=?1 AND p.is_deleted=false AND t.is_deleted=false) b " +
+            "WHERE b.position <= ?2 ORDER BY b.task_status, b.position", nativeQuery = true)
+    Stream<TaskBoardView> streamBoard(String projectCode, int limitPerStatus);
+
+    // bulk reassignment, the persistence context is flushed before and cleared after so no stale assignee survives
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.assignedEmployee.id = ?2, t.lastUpdateDateTime = CURRENT_TIMESTAMP, t.lastUpdateUserId = ?3 " +
+            "WHERE t.assignedEmployee.id = ?1 AND t.taskStatus <> 'COMPLETE' AND t.isDeleted = false")
+    int reassignNonCompleted(Long fromEmployeeId, Long toEmployeeId, Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.assignedEmployee.id = ?2, t.lastUpdateDateTime = CURRENT_TIMESTAMP, t.lastUpdateUserId = ?4 " +
+            "WHERE t.assignedEmployee.id = ?1 AND t.taskStatus <> 'COMPLETE' AND t.isDeleted = false AND t.project.id = ?3")
+    int reassignNonCompletedInProject(Long fromEmployeeId, Long toEmployeeId, Long projectId, Long userId);
+
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.assignedEmployee.id = ?1 AND t.taskStatus <> 'COMPLETE'")
+    int totalNonCompletedTasksByEmployee(Long employeeId);
+
+    // project cloning: one statement for all tasks, copies start over as OPEN with their date moved by shiftDays
+    @Modifying
+    @Query(value = "INSERT INTO tasks(insert_date_time, insert_user_id, is_deleted, last_update_date_time, last_update_user_id, " +
+            "task_subject, task_detail, task_status, assigned_date, assigned_employee_id, project_id) " +
+            "SELECT CURRENT_TIMESTAMP, ?4, false, CURRENT_TIMESTAMP, ?4, " +
+            "t.task_subject, t.task_detail, 'OPEN', t.assigned_date + CAST(?3 AS INTEGER), t.assigned_employee_id, ?2 " +
+            "FROM tasks t WHERE t.project_id=?1 AND t.is_deleted=false ORDER BY t.id", nativeQuery = true)
+    int copyToProject(Long sourceProjectId, Long targetProjectId, int shiftDays, Long userId);
+
+    @Query("SELECT t.id AS id, t.taskSubject AS taskSubject, t.taskDetail AS taskDetail FROM Task t WHERE t.project.id = ?1")
+    List<TaskSearchView> findAllForSearchByProject(Long projectId);
+
     List<Task> findAllByTaskStatusIsNotAndAssignedEmployee(Status status, User user);
 
     List<Task> findAllByTaskStatusAndAssignedEmployee(Status status, User user);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id AS id, t.taskSubject AS taskSubject, t.taskDetail AS taskDetail FROM Task t")
+    Stream<TaskSearchView> streamAllForSearch();
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE id IN (" +
+            "SELECT id FROM tasks WHERE is_deleted=true AND last_update_date_time < ?1 ORDER BY id LIMIT ?2)", nativeQuery = true)
+    int purgeDeleted(LocalDateTime deletedBefore, int limit);
+
 }
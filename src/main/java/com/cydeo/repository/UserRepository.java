@@ -1,9 +1,13 @@
 package com.cydeo.repository;
 
 import com.cydeo.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UserRepository extends JpaRepository<User,Long> {
@@ -18,4 +22,28 @@ public interface UserRepository extends JpaRepository<User,Long> {
 
     List<User> findByRoleDescriptionIgnoreCaseAndIsDeleted(String description, Boolean deleted);
 
+    @Query("SELECT u FROM User u WHERE u.keycloakId IS NULL AND (u.keycloakIdUnresolved IS NULL OR u.keycloakIdUnresolved = false) " +
+            "AND u.isDeleted = false AND u.id > ?1 ORDER BY u.id")
+    List<User> findWithoutKeycloakId(Long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.keycloakId = ?2 WHERE u.id = ?1")
+    int updateKeycloakId(Long id, String keycloakId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.keycloakIdUnresolved = true WHERE u.id = ?1")
+    int markKeycloakIdUnresolved(Long id);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id IN (" +
+            "SELECT u.id FROM users u WHERE u.is_deleted=true AND u.last_update_date_time < ?1 " +
+            "AND NOT EXISTS (SELECT 1 FROM projects p WHERE p.manager_id=u.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM tasks t WHERE t.assigned_employee_id=u.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM archived_tasks a WHERE a.assigned_employee_id=u.id) " +
+            "ORDER BY u.id LIMIT ?2)", nativeQuery = true)
+    int purgeDeleted(LocalDateTime deletedBefore, int limit);
+
 }
@@ -0,0 +1,12 @@
+package com.cydeo.repository.projection;
+
+public interface EmployeeWorkloadView {
+
+    Long getEmployeeId();
+    String getUserName();
+    String getFirstName();
+    String getLastName();
+    Long getProjectId();       // null for an employee without open tasks
+    Integer getOpenTasks();
+
+}
@@ -0,0 +1,15 @@
+package com.cydeo.repository.projection;
+
+import com.cydeo.enums.Status;
+
+import java.time.LocalDate;
+
+public interface ProjectDeadlineView {
+
+    Long getId();
+    String getProjectCode();
+    String getProjectName();
+    LocalDate getEndDate();
+    Status getProjectStatus();
+
+}
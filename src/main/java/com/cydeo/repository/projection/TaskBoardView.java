@@ -0,0 +1,17 @@
+package com.cydeo.repository.projection;
+
+import java.time.LocalDate;
+
+public interface TaskBoardView {
+
+    Long getId();
+    String getTaskSubject();
+    String getTaskDetail();
+    String getTaskStatus();
+    LocalDate getAssignedDate();
+    String getUserName();
+    String getFirstName();
+    String getLastName();
+    Integer getStatusCount();   // all tasks with this status, not only the ones returned
+
+}
@@ -0,0 +1,9 @@
+package com.cydeo.repository.projection;
+
+public interface TaskSearchView {
+
+    Long getId();
+    String getTaskSubject();
+    String getTaskDetail();
+
+}
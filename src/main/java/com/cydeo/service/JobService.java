@@ -0,0 +1,18 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.JobDTO;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.enums.JobType;
+
+import java.util.List;
+
+public interface JobService {
+
+    JobDTO submit(JobType type, ProjectDTO project);
+    JobDTO findById(Long id);
+    List<JobDTO> listAllUnfinished();
+
+    void resumeUnfinished();
+    void dispatchQueued();
+
+}
@@ -2,10 +2,10 @@ package com.cydeo.service;
 
 import com.cydeo.dto.UserDTO;
 
-import javax.ws.rs.core.Response;
-
 public interface KeycloakService {
 
-    Response userCreate(UserDTO dto);  // this response class is providing the user which is created in keycloak
-    void delete(String username);
+    String userCreate(UserDTO dto);  // returns the id keycloak gave the new user
+    void update(String keycloakId, UserDTO dto);
+    void delete(String keycloakId);
+    String findIdByUserName(String username);  // exact match, null when keycloak does not know the user
 }
@@ -1,7 +1,11 @@
 package com.cydeo.service;
 
+import com.cydeo.dto.JobDTO;
+import com.cydeo.dto.ProjectCloneDTO;
 import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.ProjectOverdueDTO;
 import com.cydeo.dto.UserDTO;
+import com.cydeo.exception.TicketingProjectException;
 
 import java.util.List;
 
@@ -11,9 +15,12 @@ public interface ProjectService {
     List<ProjectDTO> listAllProjects();
     void save(ProjectDTO dto);
     void update(ProjectDTO dto);
-    void delete(String code);
-    void complete(String code);
+    JobDTO delete(String code);
+    JobDTO complete(String code);
+    ProjectDTO clone(String code, ProjectCloneDTO cloneDTO) throws TicketingProjectException;
     List<ProjectDTO> listAllProjectDetails();
+    List<ProjectOverdueDTO> listAllOverdue();
+    void rebuildDeadlineIndex();
 
     List<ProjectDTO> listAllNonCompletedByAssignedManager(UserDTO assignedManager);
 
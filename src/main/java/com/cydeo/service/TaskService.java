@@ -1,9 +1,13 @@
 package com.cydeo.service;
 
-import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.EmployeeWorkloadDTO;
+import com.cydeo.dto.TaskBoardDTO;
 import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.TaskReassignDTO;
+import com.cydeo.dto.TaskSearchStatsDTO;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.enums.Status;
+import com.cydeo.exception.TicketingProjectException;
 
 import java.util.List;
 
@@ -19,13 +23,28 @@ public interface TaskService {
     int totalNonCompletedTask(String projectCode);
     int totalCompletedTask(String projectCode);
 
-    void deleteByProject(ProjectDTO projectDTO);
+    int totalTaskByProject(Long projectId);
+    int totalNonCompletedTaskByProject(Long projectId);
 
-    void completeByProject(ProjectDTO projectDTO);
+    int deleteByProject(Long projectId, int chunkSize, Long userId);
+    int completeByProject(Long projectId, int chunkSize, Long userId);
+    void deleteArchivedByProject(Long projectId, Long userId);
+    int copyToProject(Long sourceProjectId, Long targetProjectId, int shiftDays);
+    TaskReassignDTO reassignNonCompleted(TaskReassignDTO reassignDTO) throws TicketingProjectException;
+
+    TaskBoardDTO board(String projectCode, int limitPerStatus);
+    List<EmployeeWorkloadDTO> recommendAssignees(String projectCode, int limit);
 
     List<TaskDTO> listAllTasksByStatusIsNot(Status status);
     List<TaskDTO> listAllTasksByStatus(Status status);
 
     List<TaskDTO> listAllNonCompletedByAssignedEmployee(UserDTO assignedEmployee);
 
+    int archiveCompletedTasks(int batchSize);
+
+    List<TaskDTO> search(String query, int limit);
+    TaskSearchStatsDTO searchStats();
+    void rebuildSearchIndex();
+    void rebuildWorkloadIndex();
+
 }
@@ -2,6 +2,7 @@ package com.cydeo.service;
 
 
 import com.cydeo.dto.UserDTO;
+import com.cydeo.dto.UserSuggestionDTO;
 import com.cydeo.exception.TicketingProjectException;
 
 import java.util.List;
@@ -15,5 +16,8 @@ public interface UserService  {
     UserDTO update(UserDTO user);
     void delete(String username) throws TicketingProjectException;
     List<UserDTO> listAllByRole(String role);
+    List<UserSuggestionDTO> suggestByRole(String role, String prefix, int limit);
+    void rebuildAutocompleteIndex();
+    Long currentUserId();
 
 }
@@ -0,0 +1,26 @@
+package com.cydeo.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Index writes of the services: an index only learns about a change once it is committed, a rolled back one
+// never reaches it. The write must capture the values it needs, the entities may change before it runs.
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable write) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write.run();
+                }
+            });
+        } else {
+            write.run();
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.JobDTO;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.entity.BaseEntity;
+import com.cydeo.entity.Job;
+import com.cydeo.enums.JobStatus;
+import com.cydeo.enums.JobType;
+import com.cydeo.mapper.JobMapper;
+import com.cydeo.repository.JobRepository;
+import com.cydeo.service.JobService;
+import com.cydeo.service.TaskService;
+import com.cydeo.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+// Bulk operations run here instead of on the request thread. A job is first stored as QUEUED, then handed to
+// a small pool with a bounded queue; each chunk of tasks is its own short transaction and the job row is
+// updated after every chunk. Chunks only ever pick up tasks that still need the change, so a job that was
+// interrupted (restart, crash, full queue) is safe to run again from the top.
+@Service
+@Slf4j
+public class JobServiceImpl implements JobService {
+
+    private final JobRepository jobRepository;
+    private final JobMapper jobMapper;
+    private final TaskService taskService;
+    private final UserService userService;
+    private final int chunkSize;
+    private final boolean trainingRun;   // StartupConfig, the app exits right after starting
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();   // queued on or running in this instance
+
+    public JobServiceImpl(JobRepository jobRepository, JobMapper jobMapper, TaskService taskService, UserService userService,
+                          @Value("${app.jobs.threads:2}") int threads,
+                          @Value("${app.jobs.queue-capacity:50}") int queueCapacity,
+                          @Value("${app.jobs.chunk-size:200}") int chunkSize,
+                          @Value("${app.startup.training-run:false}") boolean trainingRun) {
+        this.jobRepository = jobRepository;
+        this.jobMapper = jobMapper;
+        this.taskService = taskService;
+        this.userService = userService;
+        this.chunkSize = chunkSize;
+        this.trainingRun = trainingRun;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("job-"));
+    }
+
+    @Override
+    public JobDTO submit(JobType type, ProjectDTO project) {
+
+        Job job = new Job();
+        job.setType(type);
+        job.setStatus(JobStatus.QUEUED);
+        job.setProjectId(project.getId());
+        job.setProjectCode(project.getProjectCode());
+        job.setRequestedBy(currentUsername());
+        job.setRequestedById(userService.currentUserId());
+
+        Job savedJob = jobRepository.save(job);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {   // the worker must see the committed job and project
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(savedJob.getId());
+                }
+            });
+        } else {
+            dispatch(savedJob.getId());
+        }
+
+        return jobMapper.convertToDto(savedJob);
+    }
+
+    @Override
+    public JobDTO findById(Long id) {
+        Job job = jobRepository.findById(id).orElseThrow(() -> new NoSuchElementException("Job not found"));
+        return jobMapper.convertToDto(job);
+    }
+
+    @Override
+    public List<JobDTO> listAllUnfinished() {
+        return jobRepository.findAllByStatusInOrderById(List.of(JobStatus.QUEUED, JobStatus.RUNNING)).stream()
+                .map(jobMapper::convertToDto).collect(Collectors.toList());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+
+        if (trainingRun) return;   // the jobs wait for a real start
+
+        List<Job> jobs = jobRepository.findAllByStatusInOrderById(List.of(JobStatus.QUEUED, JobStatus.RUNNING));
+        if (jobs.isEmpty()) return;
+
+        log.info("Resuming {} unfinished jobs", jobs.size());
+        jobs.forEach(job -> dispatch(job.getId()));
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${app.jobs.poll-interval-ms:5000}", fixedDelayString = "${app.jobs.poll-interval-ms:5000}")
+    public void dispatchQueued() {   // jobs the pool turned away when its queue was full
+        if (trainingRun) return;
+        jobRepository.findAllByStatusInOrderById(List.of(JobStatus.QUEUED))
+                .forEach(job -> dispatch(job.getId()));
+    }
+
+    private void dispatch(Long jobId) {
+
+        if (!inFlight.add(jobId)) return;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    inFlight.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(jobId);
+            log.warn("Job queue is full, job {} stays queued", jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+
+        Job job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() == JobStatus.COMPLETED || job.getStatus() == JobStatus.FAILED) return;
+
+        long start = System.currentTimeMillis();
+        try {
+            job.setStatus(JobStatus.RUNNING);
+            if (job.getStartedDateTime() == null) job.setStartedDateTime(LocalDateTime.now());
+            job.setTotalItems(job.getProcessedItems() + remaining(job));
+            job = jobRepository.save(job);
+
+            int processed;
+            do {
+                processed = runChunk(job);
+                job.setProcessedItems(job.getProcessedItems() + processed);
+                job = jobRepository.save(job);
+            } while (processed == chunkSize && !executor.isShutdown());
+
+            if (processed == chunkSize) return;   // shutting down, the job stays RUNNING until the next start
+
+            if (job.getType() == JobType.DELETE_PROJECT) {
+                taskService.deleteArchivedByProject(job.getProjectId(), requestedById(job));
+            }
+
+            job.setStatus(JobStatus.COMPLETED);
+            job.setFinishedDateTime(LocalDateTime.now());
+            jobRepository.save(job);
+
+            log.info("Job {} ({} {}) finished in {} ms - Tasks: {}", jobId, job.getType(), job.getProjectCode(),
+                    System.currentTimeMillis() - start, job.getProcessedItems());
+
+        } catch (Exception e) {
+            log.error("Job {} ({} {}) failed", jobId, job.getType(), job.getProjectCode(), e);
+            job.setStatus(JobStatus.FAILED);
+            String message = String.valueOf(e.getMessage());
+            job.setErrorMessage(message.length() > 255 ? message.substring(0, 255) : message);   // default column length
+            job.setFinishedDateTime(LocalDateTime.now());
+            jobRepository.save(job);
+        }
+    }
+
+    private int remaining(Job job) {
+        return job.getType() == JobType.COMPLETE_PROJECT
+                ? taskService.totalNonCompletedTaskByProject(job.getProjectId())
+                : taskService.totalTaskByProject(job.getProjectId());
+    }
+
+    private int runChunk(Job job) {
+        return job.getType() == JobType.COMPLETE_PROJECT
+                ? taskService.completeByProject(job.getProjectId(), chunkSize, requestedById(job))
+                : taskService.deleteByProject(job.getProjectId(), chunkSize, requestedById(job));
+    }
+
+    private Long requestedById(Job job) {   // jobs queued before the id was stored
+        return job.getRequestedById() != null ? job.getRequestedById() : BaseEntity.SYSTEM_USER_ID;
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getDetails() instanceof SimpleKeycloakAccount)) return null;
+        SimpleKeycloakAccount details = (SimpleKeycloakAccount) authentication.getDetails();
+        return details.getKeycloakSecurityContext().getToken().getPreferredUsername();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();   // running jobs stop after their current chunk and resume on the next start
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+}
@@ -3,38 +3,106 @@ package com.cydeo.service.impl;
 import com.cydeo.config.KeycloakProperties;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.service.KeycloakService;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.keycloak.admin.client.ClientBuilderWrapper;
+import org.keycloak.admin.client.JacksonProvider;
 import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.KeycloakBuilder;
 import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.UserResource;
 import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.ClientRepresentation;
 import org.keycloak.representations.idm.CredentialRepresentation;
 import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Client;
 import javax.ws.rs.core.Response;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static java.util.Arrays.asList;
 import static org.keycloak.admin.client.CreatedResponseUtil.getCreatedId;
 
+// Every call goes through one shared admin client with connect/read timeouts, a bulkhead that caps how many
+// request threads can wait on the identity server at once, and a circuit breaker that fails fast while it is
+// down and lets a few probe calls through once the open period is over (resilience4j.*.instances.keycloak).
 @Service
 public class KeycloakServiceImpl implements KeycloakService {
 
+    public static final String KEYCLOAK = "keycloak";   // resilience4j instance name
 
     private final KeycloakProperties keycloakProperties;  // dependency injection --> because want to use those variables(getRealm() ... )
+    private final Keycloak keycloak;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
 
-    public KeycloakServiceImpl(KeycloakProperties keycloakProperties) {
+    public KeycloakServiceImpl(KeycloakProperties keycloakProperties, CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                               @Value("${app.keycloak.connect-timeout:2s}") Duration connectTimeout,
+                               @Value("${app.keycloak.read-timeout:5s}") Duration readTimeout) {
         this.keycloakProperties = keycloakProperties;
+        this.keycloak = getKeycloakInstance(connectTimeout, readTimeout);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(KEYCLOAK);
+        this.bulkhead = bulkheadRegistry.bulkhead(KEYCLOAK);
     }
 
     @Override   // override the keycloakService
-    public Response userCreate(UserDTO userDTO) {   // this is the service that is going to create user in keycloak
+    public String userCreate(UserDTO userDTO) {   // this is the service that is going to create user in keycloak
+        return call(() -> create(userDTO));
+    }
 
-        CredentialRepresentation credential = new CredentialRepresentation();
-        credential.setType(CredentialRepresentation.PASSWORD);
-        credential.setTemporary(false);  // if it is true, password need to be reset
-        credential.setValue(userDTO.getPassWord());
+    @Override
+    public void update(String keycloakId, UserDTO userDTO) {
+        call(() -> {
+            UserResource userResource = keycloak.realm(keycloakProperties.getRealm()).users().get(keycloakId);
+
+            UserRepresentation keycloakUser = new UserRepresentation();
+            keycloakUser.setUsername(userDTO.getUserName());
+            keycloakUser.setFirstName(userDTO.getFirstName());
+            keycloakUser.setLastName(userDTO.getLastName());
+            keycloakUser.setEmail(userDTO.getUserName());
+            userResource.update(keycloakUser);
+
+            userResource.resetPassword(credential(userDTO.getPassWord()));
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(String keycloakId) {
+        call(() -> {
+            try (Response response = keycloak.realm(keycloakProperties.getRealm()).users().delete(keycloakId)) {   // closing hands the pooled connection back
+                int status = response.getStatus();
+                if (status == 404) return null;   // already gone
+                if (status >= 500) throw new WebApplicationException("Keycloak delete failed", status);
+                if (status >= 400) throw new ClientErrorException("Keycloak delete failed", status);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public String findIdByUserName(String userName) {
+        return call(() -> {
+            List<UserRepresentation> userRepresentations = keycloak.realm(keycloakProperties.getRealm()).users()
+                    .search(userName, true);   // exact, the plain search is a fuzzy match over several columns
+            return userRepresentations.isEmpty() ? null : userRepresentations.get(0).getId();
+        });
+    }
+
+    private String create(UserDTO userDTO) {
+
+        CredentialRepresentation credential = credential(userDTO.getPassWord());
 
         // this part is same as user create page in keycloak
         UserRepresentation keycloakUser = new UserRepresentation();
@@ -46,10 +114,6 @@ public class KeycloakServiceImpl implements KeycloakService {
         keycloakUser.setEmailVerified(true);
         keycloakUser.setEnabled(true);
 
-
-        Keycloak keycloak = getKeycloakInstance();  // if want to do anything from Spring in keycloak, we should open an instance
-                                                    // this object will hold all the info of the client
-
         RealmResource realmResource = keycloak.realm(keycloakProperties.getRealm());
         UsersResource usersResource = realmResource.users();  // this class is used to create the user
 
@@ -58,6 +122,7 @@ public class KeycloakServiceImpl implements KeycloakService {
 
 
         String userId = getCreatedId(result);
+        result.close();   // only the Location header is needed, the pooled connection goes back
         ClientRepresentation appClient = realmResource.clients()
                 .findByClientId(keycloakProperties.getClientId()).get(0);   // need to find which client working with
 
@@ -67,28 +132,41 @@ public class KeycloakServiceImpl implements KeycloakService {
         realmResource.users().get(userId).roles().clientLevel(appClient.getId())
                 .add(List.of(userClientRole));
 
-        keycloak.close();
-        return result;
+        return userId;
     }
 
-    @Override
-    public void delete(String userName) {
-
-        Keycloak keycloak = getKeycloakInstance();
-
-        RealmResource realmResource = keycloak.realm(keycloakProperties.getRealm());
-        UsersResource usersResource = realmResource.users();
+    private CredentialRepresentation credential(String password) {
+        CredentialRepresentation credential = new CredentialRepresentation();
+        credential.setType(CredentialRepresentation.PASSWORD);
+        credential.setTemporary(false);  // if it is true, password need to be reset
+        credential.setValue(password);
+        return credential;
+    }
 
-        List<UserRepresentation> userRepresentations = usersResource.search(userName);
-        String uid = userRepresentations.get(0).getId();
-        usersResource.delete(uid);
+    private <T> T call(Supplier<T> adminCall) {   // the breaker sits outside the bulkhead, an open circuit takes no permit
+        return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, adminCall)).get();
+    }
 
-        keycloak.close();
+    // one instance for the app: it keeps its admin token and pooled connections between calls
+    private Keycloak getKeycloakInstance(Duration connectTimeout, Duration readTimeout){
+        Client client = ClientBuilderWrapper.create(null, false)
+                .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .register(JacksonProvider.class, 100)
+                .build();
+
+        return KeycloakBuilder.builder()
+                .serverUrl(keycloakProperties.getAuthServerUrl())
+                .realm(keycloakProperties.getMasterRealm())
+                .username(keycloakProperties.getMasterUser())
+                .password(keycloakProperties.getMasterUserPswd())
+                .clientId(keycloakProperties.getMasterClient())
+                .resteasyClient(client)
+                .build();
     }
 
-    private Keycloak getKeycloakInstance(){
-        return Keycloak.getInstance(keycloakProperties.getAuthServerUrl(),
-                keycloakProperties.getMasterRealm(), keycloakProperties.getMasterUser()
-                , keycloakProperties.getMasterUserPswd(), keycloakProperties.getMasterClient());
+    @PreDestroy
+    public void close() {
+        keycloak.close();
     }
 }
\ No newline at end of file
@@ -1,26 +1,43 @@
 package com.cydeo.service.impl;
 
+import com.cydeo.cache.ResponseBodyCache;
+import com.cydeo.dto.JobDTO;
+import com.cydeo.dto.ProjectCloneDTO;
 import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.ProjectOverdueDTO;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.entity.Project;
 import com.cydeo.entity.User;
+import com.cydeo.enums.JobType;
 import com.cydeo.enums.Status;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.index.ProjectDeadlineIndex;
 import com.cydeo.mapper.ProjectMapper;
 import com.cydeo.mapper.UserMapper;
 import com.cydeo.repository.ProjectRepository;
+import com.cydeo.service.JobService;
 import com.cydeo.service.ProjectService;
 import com.cydeo.service.TaskService;
 import com.cydeo.service.UserService;
+import lombok.extern.slf4j.Slf4j;
 import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class ProjectServiceImpl implements ProjectService {
 
     private final ProjectRepository projectRepository;
@@ -28,22 +45,30 @@ public class ProjectServiceImpl implements ProjectService {
     private final UserService userService;
     private final UserMapper userMapper;
     private final TaskService taskService;
+    private final ResponseBodyCache responseBodyCache;
+    private final JobService jobService;
+    private final ProjectDeadlineIndex projectDeadlineIndex;
 
-    public ProjectServiceImpl(ProjectRepository projectRepository, ProjectMapper projectMapper, UserService userService, UserMapper userMapper, TaskService taskService) {
+    public ProjectServiceImpl(ProjectRepository projectRepository, ProjectMapper projectMapper, UserService userService, UserMapper userMapper, TaskService taskService, ResponseBodyCache responseBodyCache, JobService jobService, ProjectDeadlineIndex projectDeadlineIndex) {
         this.projectRepository = projectRepository;
         this.projectMapper = projectMapper;
         this.userService = userService;
         this.userMapper = userMapper;
         this.taskService = taskService;
+        this.responseBodyCache = responseBodyCache;
+        this.jobService = jobService;
+        this.projectDeadlineIndex = projectDeadlineIndex;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProjectDTO getByProjectCode(String code) {
         Project project = projectRepository.findByProjectCode(code);
         return projectMapper.convertToDto(project);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> listAllProjects() {
 
         List<Project> list = projectRepository.findAll(Sort.by("projectCode"));
@@ -52,14 +77,18 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @Transactional
     public void save(ProjectDTO dto) {
 
         dto.setProjectStatus(Status.OPEN);
         Project project = projectMapper.convertToEntity(dto);
         projectRepository.save(project);
+        responseBodyCache.invalidate(ResponseBodyCache.PROJECTS);
+        trackDeadline(project);
     }
 
     @Override
+    @Transactional
     public void update(ProjectDTO dto) {
 
         Project project = projectRepository.findByProjectCode(dto.getProjectCode());
@@ -71,33 +100,78 @@ public class ProjectServiceImpl implements ProjectService {
         convertedProject.setProjectStatus(project.getProjectStatus());
 
         projectRepository.save(convertedProject);
+        responseBodyCache.invalidate(ResponseBodyCache.PROJECTS);
+        trackDeadline(convertedProject);
 
 
     }
 
     @Override
-    public void delete(String code) {
+    @Transactional
+    public JobDTO delete(String code) {
         Project project = projectRepository.findByProjectCode(code);
         project.setIsDeleted(true);
 
         project.setProjectCode(project.getProjectCode() + "-" + project.getId());  // SP03-4
 
         projectRepository.save(project);
+        responseBodyCache.invalidate(ResponseBodyCache.PROJECTS);
+        AfterCommit.run(() -> projectDeadlineIndex.remove(project.getId()));
 
-        taskService.deleteByProject(projectMapper.convertToDto(project));
+        return jobService.submit(JobType.DELETE_PROJECT, projectMapper.convertToDto(project));   // tasks follow in the background
 
     }
 
     @Override
-    public void complete(String code) {
+    @Transactional
+    public JobDTO complete(String code) {
         Project project = projectRepository.findByProjectCode(code);
         project.setProjectStatus(Status.COMPLETE);
         projectRepository.save(project);
+        responseBodyCache.invalidate(ResponseBodyCache.PROJECTS);
+        AfterCommit.run(() -> projectDeadlineIndex.remove(project.getId()));
 
-        taskService.completeByProject(projectMapper.convertToDto(project));
+        return jobService.submit(JobType.COMPLETE_PROJECT, projectMapper.convertToDto(project));
     }
 
     @Override
+    @Transactional(rollbackFor = TicketingProjectException.class)
+    public ProjectDTO clone(String code, ProjectCloneDTO cloneDTO) throws TicketingProjectException {
+
+        Project template = projectRepository.findByProjectCode(code);
+        if (template == null) throw new NoSuchElementException("Project not found");
+        if (projectRepository.findByProjectCode(cloneDTO.getProjectCode()) != null) {   // deleted projects keep their code too
+            throw new TicketingProjectException("Project code is already used");
+        }
+
+        LocalDate startDate = cloneDTO.getStartDate() != null ? cloneDTO.getStartDate() : template.getStartDate();
+        int shiftDays = (int) ChronoUnit.DAYS.between(template.getStartDate(), startDate);
+
+        Project project = new Project();
+        project.setProjectCode(cloneDTO.getProjectCode());
+        project.setProjectName(cloneDTO.getProjectName() != null ? cloneDTO.getProjectName() : template.getProjectName());
+        project.setProjectDetail(template.getProjectDetail());
+        project.setStartDate(startDate);
+        project.setEndDate(template.getEndDate().plusDays(shiftDays));
+        project.setProjectStatus(Status.OPEN);
+        project.setAssignedManager(template.getAssignedManager());
+        try {
+            projectRepository.save(project);   // identity id, inserted right away so the task copies can point at it
+        } catch (DataIntegrityViolationException e) {   // the same code cloned at the same time
+            throw new TicketingProjectException("Project code is already used");
+        }
+
+        int tasks = taskService.copyToProject(template.getId(), project.getId(), shiftDays);
+        responseBodyCache.invalidate(ResponseBodyCache.PROJECTS);
+        trackDeadline(project);
+
+        ProjectDTO projectDTO = projectMapper.convertToDto(project);
+        projectDTO.setUnfinishedTaskCounts(tasks);   // every copy starts OPEN
+        return projectDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> listAllProjectDetails() {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();  // is getting info from spring boot, who is logging in?
@@ -125,10 +199,39 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> listAllNonCompletedByAssignedManager(UserDTO assignedManager) {
         List<Project> projects = projectRepository
                 .findAllByProjectStatusIsNotAndAssignedManager(Status.COMPLETE, userMapper.convertToEntity(assignedManager));
         return projects.stream().map(projectMapper::convertToDto).collect(Collectors.toList());
     }
 
+    @Override
+    public List<ProjectOverdueDTO> listAllOverdue() {
+        return projectDeadlineIndex.overdue(LocalDate.now());   // answered from memory, no query
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildDeadlineIndex() {
+
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        projectDeadlineIndex.rebuild(index -> projectRepository.findAllDeadlinesByProjectStatusIsNot(Status.COMPLETE).forEach(project -> index.load(
+                project.getId(), project.getProjectCode(), project.getProjectName(), project.getEndDate(), project.getProjectStatus(), today)));
+
+        log.info("Project deadline index built in {} ms - Projects: {}, Overdue: {}", System.currentTimeMillis() - start,
+                projectDeadlineIndex.size(), projectDeadlineIndex.overdue(LocalDate.now()).size());
+    }
+
+    private void trackDeadline(Project project) {
+        Long id = project.getId();
+        String code = project.getProjectCode();
+        String name = project.getProjectName();
+        LocalDate endDate = project.getEndDate();
+        Status status = project.getProjectStatus();
+        AfterCommit.run(() -> projectDeadlineIndex.put(id, code, name, endDate, status));
+    }
+
 }
@@ -1,45 +1,78 @@
 package com.cydeo.service.impl;
 
-import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.EmployeeWorkloadDTO;
+import com.cydeo.dto.TaskBoardCardDTO;
+import com.cydeo.dto.TaskBoardColumnDTO;
+import com.cydeo.dto.TaskBoardDTO;
 import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.TaskReassignDTO;
+import com.cydeo.dto.TaskSearchStatsDTO;
 import com.cydeo.dto.UserDTO;
+import com.cydeo.entity.ArchivedTask;
 import com.cydeo.entity.Project;
 import com.cydeo.entity.Task;
 import com.cydeo.enums.Status;
-import com.cydeo.mapper.ProjectMapper;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.index.EmployeeWorkloadIndex;
+import com.cydeo.index.TaskSearchIndex;
 import com.cydeo.mapper.TaskMapper;
 import com.cydeo.mapper.UserMapper;
+import com.cydeo.repository.ArchivedTaskRepository;
+import com.cydeo.repository.ProjectRepository;
 import com.cydeo.repository.TaskRepository;
+import com.cydeo.repository.projection.EmployeeWorkloadView;
+import com.cydeo.repository.projection.TaskBoardView;
+import com.cydeo.repository.projection.TaskSearchView;
 import com.cydeo.service.TaskService;
 import com.cydeo.service.UserService;
+import lombok.extern.slf4j.Slf4j;
 import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Slf4j
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
-    private final ProjectMapper projectMapper;
     private final UserService userService;
     private final UserMapper userMapper;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ProjectRepository projectRepository;
+    private final EmployeeWorkloadIndex employeeWorkloadIndex;
 
-    public TaskServiceImpl(TaskRepository taskRepository, TaskMapper taskMapper, ProjectMapper projectMapper, UserService userService, UserMapper userMapper) {
+    public TaskServiceImpl(TaskRepository taskRepository, TaskMapper taskMapper, UserService userService, UserMapper userMapper, TaskSearchIndex taskSearchIndex, ArchivedTaskRepository archivedTaskRepository, ProjectRepository projectRepository, EmployeeWorkloadIndex employeeWorkloadIndex) {
         this.taskRepository = taskRepository;
         this.taskMapper = taskMapper;
-        this.projectMapper = projectMapper;
         this.userService = userService;
         this.userMapper = userMapper;
+        this.taskSearchIndex = taskSearchIndex;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.projectRepository = projectRepository;
+        this.employeeWorkloadIndex = employeeWorkloadIndex;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TaskDTO findById(Long id) {
 
         Optional<Task> task = taskRepository.findById(id);
@@ -47,25 +80,33 @@ public class TaskServiceImpl implements TaskService {
         if(task.isPresent()){
             return taskMapper.convertToDto(task.get());
         }
-        return null;
+        return archivedTaskRepository.findById(id).map(taskMapper::convertToDto).orElse(null);   // archived tasks keep their id
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> listAllTasks() {
-        return taskRepository.findAll().stream().map(taskMapper::convertToDto).collect(Collectors.toList());
+        return Stream.concat(taskRepository.findAll().stream().map(taskMapper::convertToDto),
+                        archivedTaskRepository.findAll().stream().map(taskMapper::convertToDto))
+                .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public void save(TaskDTO dto) {
 
         dto.setTaskStatus(Status.OPEN);
         dto.setAssignedDate(LocalDate.now());
         Task task = taskMapper.convertToEntity(dto);
-        taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+
+        trackSearch(savedTask);
+        trackWorkload(savedTask, 1);
 
     }
 
     @Override
+    @Transactional
     public void update(TaskDTO dto) {
 
         Optional<Task> task = taskRepository.findById(dto.getId());
@@ -74,12 +115,17 @@ public class TaskServiceImpl implements TaskService {
         if(task.isPresent()){
             convertedTask.setTaskStatus(dto.getTaskStatus() == null ? task.get().getTaskStatus() : dto.getTaskStatus());
             convertedTask.setAssignedDate(task.get().getAssignedDate());
+            trackWorkload(task.get(), -1);   // before the save, which may merge the new state into this same instance
             taskRepository.save(convertedTask);
+
+            trackSearch(convertedTask);
+            trackWorkload(convertedTask, 1);
         }
 
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
 
         Optional<Task> foundTask = taskRepository.findById(id);
@@ -87,38 +133,147 @@ public class TaskServiceImpl implements TaskService {
         if(foundTask.isPresent()){
             foundTask.get().setIsDeleted(true);
             taskRepository.save(foundTask.get());
+
+            AfterCommit.run(() -> taskSearchIndex.remove(id));
+            trackWorkload(foundTask.get(), -1);
         }
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int totalNonCompletedTask(String projectCode) {
         return taskRepository.totalNonCompletedTasks(projectCode);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int totalCompletedTask(String projectCode) {
-        return taskRepository.totalCompletedTasks(projectCode);
+        return taskRepository.totalCompletedTasks(projectCode) + archivedTaskRepository.totalArchivedTasks(projectCode);
     }
 
     @Override
-    public void deleteByProject(ProjectDTO projectDTO) {
-        Project project = projectMapper.convertToEntity(projectDTO);
-        List<Task> tasks = taskRepository.findAllByProject(project);
-        tasks.forEach(task -> delete(task.getId()));
+    @Transactional(readOnly = true)
+    public int totalTaskByProject(Long projectId) {
+        return taskRepository.totalTasksByProject(projectId);
     }
 
     @Override
-    public void completeByProject(ProjectDTO projectDTO) {
-        Project project = projectMapper.convertToEntity(projectDTO);
-        List<Task> tasks = taskRepository.findAllByProject(project);
-        tasks.stream().map(taskMapper::convertToDto).forEach(taskDTO -> {
-            taskDTO.setTaskStatus(Status.COMPLETE);
-            update(taskDTO);
-        });
+    @Transactional(readOnly = true)
+    public int totalNonCompletedTaskByProject(Long projectId) {
+        return taskRepository.totalNonCompletedTasksByProject(projectId);
+    }
+
+    @Override
+    @Transactional
+    public int deleteByProject(Long projectId, int chunkSize, Long userId) {
+
+        List<Long> taskIds = taskRepository.findIdsByProject(projectId, PageRequest.of(0, chunkSize));
+        if (taskIds.isEmpty()) return 0;
+
+        taskRepository.softDeleteAll(taskIds, userId);
+        AfterCommit.run(() -> taskIds.forEach(taskSearchIndex::remove));
+        refreshWorkload(projectId);
+
+        return taskIds.size();
+    }
+
+    @Override
+    @Transactional
+    public int completeByProject(Long projectId, int chunkSize, Long userId) {
+
+        List<Long> taskIds = taskRepository.findNonCompletedIdsByProject(projectId, PageRequest.of(0, chunkSize));
+        if (taskIds.isEmpty()) return 0;
+
+        taskRepository.completeAll(taskIds, userId);   // subject and detail are unchanged, the search index stays as it is
+        refreshWorkload(projectId);
+
+        return taskIds.size();
+    }
+
+    @Override
+    @Transactional
+    public void deleteArchivedByProject(Long projectId, Long userId) {
+        List<Long> taskIds = archivedTaskRepository.findIdsByProject(projectId);
+        archivedTaskRepository.softDeleteByProject(projectId, userId);
+        AfterCommit.run(() -> taskIds.forEach(taskSearchIndex::remove));
+    }
+
+    @Override
+    @Transactional
+    public int copyToProject(Long sourceProjectId, Long targetProjectId, int shiftDays) {
+
+        Long userId = userService.currentUserId();
+        int copied = taskRepository.copyToProject(sourceProjectId, targetProjectId, shiftDays, userId)
+                + archivedTaskRepository.copyToProject(sourceProjectId, targetProjectId, shiftDays, userId);
+
+        List<TaskSearchView> copies = taskRepository.findAllForSearchByProject(targetProjectId);   // the copies got their ids from the database
+        AfterCommit.run(() -> copies.forEach(task -> taskSearchIndex.index(task.getId(), task.getTaskSubject(), task.getTaskDetail())));
+        refreshWorkload(targetProjectId);
+
+        return copied;
+    }
+
+    @Override
+    @Transactional
+    public TaskReassignDTO reassignNonCompleted(TaskReassignDTO reassignDTO) throws TicketingProjectException {
+
+        UserDTO from = userService.findByUserName(reassignDTO.getFromUserName());
+        UserDTO to = userService.findByUserName(reassignDTO.getToUserName());
+        if (!"Employee".equals(to.getRole().getDescription())) throw new TicketingProjectException("Tasks can only be assigned to an employee");
+        if (from.getId().equals(to.getId())) throw new TicketingProjectException("Tasks are already assigned to this employee");
+
+        Long userId = userService.currentUserId();
+        int reassigned;
+        if (reassignDTO.getProjectCode() == null || reassignDTO.getProjectCode().isBlank()) {
+            reassigned = taskRepository.reassignNonCompleted(from.getId(), to.getId(), userId);
+            AfterCommit.run(() -> employeeWorkloadIndex.move(from.getId(), to.getId(), null));
+        } else {
+            Project project = projectRepository.findByProjectCode(reassignDTO.getProjectCode());
+            if (project == null) throw new NoSuchElementException("Project not found");
+            reassigned = taskRepository.reassignNonCompletedInProject(from.getId(), to.getId(), project.getId(), userId);
+            Long projectId = project.getId();
+            AfterCommit.run(() -> employeeWorkloadIndex.move(from.getId(), to.getId(), projectId));
+        }
+        // subject and detail are unchanged, the search index stays as it is
+
+        reassignDTO.setReassignedTasks(reassigned);
+        reassignDTO.setRemainingOpenTasks(taskRepository.totalNonCompletedTasksByEmployee(from.getId()));
+        return reassignDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskBoardDTO board(String projectCode, int limitPerStatus) {
+
+        Map<Status, TaskBoardColumnDTO> columns = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) columns.put(status, new TaskBoardColumnDTO(status));
+
+        try (Stream<TaskBoardView> rows = taskRepository.streamBoard(projectCode, limitPerStatus)) {   // rows go straight into their column
+            rows.forEach(row -> {
+                TaskBoardColumnDTO column = columns.get(Status.valueOf(row.getTaskStatus()));
+                column.setTotalTasks(row.getStatusCount());
+                column.getTasks().add(new TaskBoardCardDTO(row.getId(), row.getTaskSubject(), row.getTaskDetail(), row.getAssignedDate(),
+                        row.getUserName(), row.getUserName() == null ? null : row.getFirstName() + " " + row.getLastName()));
+            });
+        }
+
+        boolean empty = columns.values().stream().allMatch(column -> column.getTasks().isEmpty());
+        if (empty && projectRepository.findByProjectCode(projectCode) == null) throw new NoSuchElementException("Project not found");
+
+        return new TaskBoardDTO(projectCode, limitPerStatus, new ArrayList<>(columns.values()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeWorkloadDTO> recommendAssignees(String projectCode, int limit) {
+        Project project = projectRepository.findByProjectCode(projectCode);
+        if (project == null) throw new NoSuchElementException("Project not found");
+        return employeeWorkloadIndex.leastLoaded(project.getId(), limit);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> listAllTasksByStatusIsNot(Status status) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -133,6 +288,7 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> listAllTasksByStatus(Status status) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -143,14 +299,118 @@ public class TaskServiceImpl implements TaskService {
 
         List<Task> tasks = taskRepository.
                 findAllByTaskStatusAndAssignedEmployee(status, userMapper.convertToEntity(loggedInUser));
-        return tasks.stream().map(taskMapper::convertToDto).collect(Collectors.toList());
+        List<TaskDTO> taskList = tasks.stream().map(taskMapper::convertToDto).collect(Collectors.toList());
+
+        if (status == Status.COMPLETE) {    // completed tasks of completed projects live in the archive
+            archivedTaskRepository.findAllByAssignedEmployee(userMapper.convertToEntity(loggedInUser)).stream()
+                    .map(taskMapper::convertToDto)
+                    .forEach(taskList::add);
+        }
+        return taskList;
     }
 
     @Override
+    @Transactional
+    public int archiveCompletedTasks(int batchSize) {
+
+        List<Long> taskIds = archivedTaskRepository.findArchivableTaskIds(batchSize);
+        if (taskIds.isEmpty()) return 0;
+
+        archivedTaskRepository.copyToArchive(taskIds);
+        archivedTaskRepository.deleteFromHot(taskIds);   // same ids and text, the search index stays as it is
+
+        return taskIds.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> listAllNonCompletedByAssignedEmployee(UserDTO assignedEmployee) {
         List<Task> tasks = taskRepository
                 .findAllByTaskStatusIsNotAndAssignedEmployee(Status.COMPLETE, userMapper.convertToEntity(assignedEmployee));
         return tasks.stream().map(taskMapper::convertToDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDTO> search(String query, int limit) {
+
+        List<Long> hits = taskSearchIndex.search(query, limit);   // ranked ids, best match first
+
+        Map<Long, TaskDTO> tasks = taskRepository.findAllById(hits).stream()
+                .collect(Collectors.toMap(Task::getId, taskMapper::convertToDto));
+        List<Long> archived = hits.stream().filter(id -> !tasks.containsKey(id)).collect(Collectors.toList());
+        if (!archived.isEmpty()) {
+            archivedTaskRepository.findAllById(archived).forEach(task -> tasks.put(task.getId(), taskMapper.convertToDto(task)));
+        }
+
+        return hits.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public TaskSearchStatsDTO searchStats() {
+        return taskSearchIndex.stats();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+
+        long start = System.currentTimeMillis();
+        taskSearchIndex.rebuild(index -> {
+            try (Stream<TaskSearchView> tasks = taskRepository.streamAllForSearch()) {   // rows are read in fetch-size chunks, never as one list
+                tasks.forEach(task -> index.index(task.getId(), task.getTaskSubject(), task.getTaskDetail()));
+            }
+            try (Stream<TaskSearchView> tasks = archivedTaskRepository.streamAllForSearch()) {
+                tasks.forEach(task -> index.index(task.getId(), task.getTaskSubject(), task.getTaskDetail()));
+            }
+        });
+
+        TaskSearchStatsDTO stats = taskSearchIndex.stats();
+        log.info("Task search index built in {} ms - Tasks: {}, Terms: {}, Estimated memory: {} KB",
+                System.currentTimeMillis() - start, stats.getIndexedTasks(), stats.getTerms(), stats.getEstimatedMemoryBytes() / 1024);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildWorkloadIndex() {
+
+        long start = System.currentTimeMillis();
+        Set<Long> changedProjects = employeeWorkloadIndex.rebuild(index -> {
+            List<EmployeeWorkloadView> rows = taskRepository.findEmployeeWorkloads();   // one aggregate query instead of one per employee
+            rows.forEach(row -> {
+                index.putEmployee(row.getEmployeeId(), row.getUserName(), row.getFirstName(), row.getLastName());
+                index.adjust(row.getEmployeeId(), row.getProjectId(), row.getOpenTasks());
+            });
+        });
+        changedProjects.forEach(this::refreshWorkload);   // tasks opened or closed while the rows were read
+
+        log.info("Employee workload index built in {} ms - Employees: {}", System.currentTimeMillis() - start, employeeWorkloadIndex.size());
+    }
+
+    private void trackSearch(Task task) {
+        Long id = task.getId();
+        String subject = task.getTaskSubject();
+        String detail = task.getTaskDetail();
+        AfterCommit.run(() -> taskSearchIndex.index(id, subject, detail));
+    }
+
+    private void trackWorkload(Task task, int delta) {   // only open tasks count towards a workload
+        if (task.getTaskStatus() == Status.COMPLETE || task.getAssignedEmployee() == null || task.getProject() == null) return;
+        Long employeeId = task.getAssignedEmployee().getId();
+        Long projectId = task.getProject().getId();
+        AfterCommit.run(() -> employeeWorkloadIndex.adjust(employeeId, projectId, delta));
+    }
+
+    private void refreshWorkload(Long projectId) {   // after bulk statements that bypass the entities
+        Map<Long, Integer> openTasks = taskRepository.findEmployeeWorkloadsByProject(projectId).stream()   // read in the transaction, with its own writes
+                .filter(row -> row.getEmployeeId() != null)
+                .collect(Collectors.toMap(EmployeeWorkloadView::getEmployeeId, EmployeeWorkloadView::getOpenTasks));
+        AfterCommit.run(() -> employeeWorkloadIndex.replaceProject(projectId, openTasks));
+    }
+
 }
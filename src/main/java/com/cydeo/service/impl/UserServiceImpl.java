@@ -1,26 +1,40 @@
 package com.cydeo.service.impl;
 
 import com.cydeo.annotation.DefaultExceptionMessage;
+import com.cydeo.annotation.SingleFlight;
+import com.cydeo.cache.ResponseBodyCache;
 import com.cydeo.dto.ProjectDTO;
 import com.cydeo.dto.TaskDTO;
 import com.cydeo.dto.UserDTO;
+import com.cydeo.dto.UserSuggestionDTO;
+import com.cydeo.entity.BaseEntity;
 import com.cydeo.entity.User;
 import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.index.EmployeeWorkloadIndex;
+import com.cydeo.index.UserAutocompleteIndex;
 import com.cydeo.mapper.UserMapper;
 import com.cydeo.repository.UserRepository;
 import com.cydeo.service.KeycloakService;
 import com.cydeo.service.ProjectService;
 import com.cydeo.service.TaskService;
 import com.cydeo.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
@@ -29,17 +43,24 @@ public class UserServiceImpl implements UserService {
     private final TaskService taskService;
     private final KeycloakService keycloakService;
     private final PasswordEncoder passwordEncoder;
+    private final ResponseBodyCache responseBodyCache;
+    private final EmployeeWorkloadIndex employeeWorkloadIndex;
+    private final UserAutocompleteIndex userAutocompleteIndex;
 
-    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, @Lazy ProjectService projectService, @Lazy TaskService taskService, KeycloakService keycloakService, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, @Lazy ProjectService projectService, @Lazy TaskService taskService, KeycloakService keycloakService, PasswordEncoder passwordEncoder, ResponseBodyCache responseBodyCache, EmployeeWorkloadIndex employeeWorkloadIndex, UserAutocompleteIndex userAutocompleteIndex) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.projectService = projectService;
         this.taskService = taskService;
         this.keycloakService = keycloakService;
         this.passwordEncoder = passwordEncoder;
+        this.responseBodyCache = responseBodyCache;
+        this.employeeWorkloadIndex = employeeWorkloadIndex;
+        this.userAutocompleteIndex = userAutocompleteIndex;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO findByUserName(String username) {
         User user = userRepository.findByUserNameAndIsDeleted(username, false);
         if(user == null) throw new NoSuchElementException("User not found");
@@ -47,12 +68,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> listAllUsers() {
         List<User> userList = userRepository.findAllByIsDeletedOrderByFirstNameDesc(false);
         return userList.stream().map(userMapper::convertToDto).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public UserDTO save(UserDTO user) {
 
         user.setEnabled(true);
@@ -62,8 +85,11 @@ public class UserServiceImpl implements UserService {
         User obj = userMapper.convertToEntity(user);
 
         User savedUser = userRepository.save(obj);
+        responseBodyCache.invalidate(ResponseBodyCache.USERS);
 
-        keycloakService.userCreate(user);
+        savedUser.setKeycloakId(keycloakService.userCreate(user));   // later updates and deletes go straight to this id
+        userRepository.save(savedUser);
+        trackUser(savedUser);
 
         return userMapper.convertToDto(savedUser);
 
@@ -76,45 +102,123 @@ public class UserServiceImpl implements UserService {
 //    }
 
     @Override
+    @Transactional
     public UserDTO update(UserDTO user) {
 
         //Find current user
         User user1 = userRepository.findByUserNameAndIsDeleted(user.getUserName(), false);  //has id
+        //keycloak goes first, it still needs the plain password
+        String keycloakId = keycloakIdOf(user1);
+        if (keycloakId != null) keycloakService.update(keycloakId, user);
         user.setPassWord(passwordEncoder.encode(user.getPassWord()));
         //Map update user dto to entity object
         User convertedUser = userMapper.convertToEntity(user);   // has id?
         //set id to the converted object
         convertedUser.setId(user1.getId());
+        convertedUser.setKeycloakId(keycloakId);
+        convertedUser.setKeycloakIdUnresolved(user1.getKeycloakIdUnresolved());
         //save the updated user in the db
         userRepository.save(convertedUser);
+        responseBodyCache.invalidate(ResponseBodyCache.USERS, ResponseBodyCache.PROJECTS);   // projects embed their manager
+        trackUser(convertedUser);
 
         return findByUserName(user.getUserName());
 
     }
 
     @Override
+    @Transactional
     @DefaultExceptionMessage(defaultMessage = "Failed to delete user")
     public void delete(String username) throws TicketingProjectException {
 
         User user = userRepository.findByUserNameAndIsDeleted(username, false);
+        String keycloakId;
 
         if (checkIfUserCanBeDeleted(user)) {
+            keycloakId = keycloakIdOf(user);   // before the username gets its suffix
             user.setIsDeleted(true);
             user.setUserName(user.getUserName() + "-" + user.getId());  // harold@manager.com-2
             userRepository.save(user);
+            responseBodyCache.invalidate(ResponseBodyCache.USERS, ResponseBodyCache.PROJECTS);
+            Long id = user.getId();
+            AfterCommit.run(() -> {   // a failed keycloak delete below rolls the delete back, the user stays listed
+                employeeWorkloadIndex.removeEmployee(id);
+                userAutocompleteIndex.remove(id);
+            });
         }else {
             throw new TicketingProjectException("User can not be deleted");
         }
 
-        keycloakService.delete(username);
+        if (keycloakId != null) keycloakService.delete(keycloakId);
     }
 
     @Override
+    @SingleFlight
+    @Transactional(readOnly = true)
     public List<UserDTO> listAllByRole(String role) {
         List<User> users = userRepository.findByRoleDescriptionIgnoreCaseAndIsDeleted(role, false);
         return users.stream().map(userMapper::convertToDto).collect(Collectors.toList());
     }
 
+    private void trackUser(User user) {   // only employees are offered as assignees, with their current name
+        Long id = user.getId();
+        String userName = user.getUserName();
+        String firstName = user.getFirstName();
+        String lastName = user.getLastName();
+        String role = user.getRole() == null ? null : user.getRole().getDescription();
+        AfterCommit.run(() -> {
+            userAutocompleteIndex.put(id, userName, firstName, lastName, role);
+            if (role == null) return;   // role given by id only, the indexes keep what they know
+            if (role.equals("Employee")) {
+                employeeWorkloadIndex.putEmployee(id, userName, firstName, lastName);
+            } else {
+                employeeWorkloadIndex.removeEmployee(id);
+            }
+        });
+    }
+
+    private String keycloakIdOf(User user) {   // users created before the id was stored need one lookup, its answer is kept on the entity
+        if (user.getKeycloakId() == null && !Boolean.TRUE.equals(user.getKeycloakIdUnresolved())) {
+            String keycloakId = keycloakService.findIdByUserName(user.getUserName());
+            if (keycloakId == null) {
+                user.setKeycloakIdUnresolved(true);
+            } else {
+                user.setKeycloakId(keycloakId);
+            }
+        }
+        return user.getKeycloakId();
+    }
+
+    @Override
+    public List<UserSuggestionDTO> suggestByRole(String role, String prefix, int limit) {
+        return userAutocompleteIndex.suggest(role, prefix, limit);   // answered from memory, no query
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAutocompleteIndex() {
+
+        long start = System.currentTimeMillis();
+        userAutocompleteIndex.rebuild(index -> userRepository.findAllByIsDeletedOrderByFirstNameDesc(false).forEach(user -> index.put(user.getId(),
+                user.getUserName(), user.getFirstName(), user.getLastName(), user.getRole().getDescription())));
+
+        log.info("User autocomplete index built in {} ms - Users: {}", System.currentTimeMillis() - start, userAutocompleteIndex.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long currentUserId() {   // for the audit columns of bulk statements, which skip the entity callbacks
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getDetails() instanceof SimpleKeycloakAccount)) return BaseEntity.SYSTEM_USER_ID;
+        SimpleKeycloakAccount details = (SimpleKeycloakAccount) authentication.getDetails();
+        String username = details.getKeycloakSecurityContext().getToken().getPreferredUsername();
+
+        User user = userRepository.findByUserNameAndIsDeleted(username, false);
+        return user != null ? user.getId() : BaseEntity.SYSTEM_USER_ID;
+    }
+
     private boolean checkIfUserCanBeDeleted(User user) {
 
         switch (user.getRole().getDescription()) {
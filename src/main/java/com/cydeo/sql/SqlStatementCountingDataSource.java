@@ -0,0 +1,29 @@
+package com.cydeo.sql;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+
+// Reports every statement to the SqlStatementStats of the calling thread, if a scope is open
+public class SqlStatementCountingDataSource extends StatementInterceptingDataSource {
+
+    public SqlStatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    protected Object execute(Statement statement, String sql, Execution execution) throws Throwable {
+
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats == null) {
+            return execution.proceed();
+        }
+
+        long start = System.nanoTime();
+        try {
+            return execution.proceed();
+        } finally {
+            stats.record(sql, System.nanoTime() - start);   // a batch is one round trip, so it counts once
+        }
+    }
+
+}
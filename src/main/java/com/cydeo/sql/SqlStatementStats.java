@@ -0,0 +1,79 @@
+package com.cydeo.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+// Statements executed on the current thread while a scope is open; SqlStatsFilter opens one per request
+public class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+    private int statementCount;
+    private long totalNanos;
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    // runs the work in its own scope, e.g. for asserting how many statements a service call needs
+    public static SqlStatementStats measure(Callable<?> work) throws Exception {
+        SqlStatementStats previous = CURRENT.get();
+        SqlStatementStats stats = start();
+        try {
+            work.call();
+            return stats;
+        } finally {
+            if (previous != null) CURRENT.set(previous); else stop();
+        }
+    }
+
+    void record(String sql, long nanos) {
+        statementCount++;
+        totalNanos += nanos;
+        if (sql != null) shapes.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalTimeMillis() {
+        return totalNanos / 1_000_000;
+    }
+
+    // shapes executed at least `threshold` times - the usual sign of an N+1
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.forEach((shape, count) -> {
+            if (count >= threshold) repeated.put(shape, count);
+        });
+        return repeated;
+    }
+
+    // literals and IN-lists are folded so "where id=1" and "where id=2" count as the same statement
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+
+}
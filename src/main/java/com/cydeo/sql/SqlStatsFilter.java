@@ -0,0 +1,50 @@
+package com.cydeo.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+// Adds the statement count and DB time of each request to its response headers and warns about N+1 shapes.
+// The body is buffered so the headers can still be set after the handler has written it - dev/test only.
+@Slf4j
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-Sql-Statement-Count";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+    public static final String REPEATED_HEADER = "X-Sql-Repeated-Statements";
+
+    private final int repeatThreshold;
+
+    public SqlStatsFilter(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            SqlStatementStats.stop();
+            Map<String, Integer> repeated = stats.getRepeatedStatements(repeatThreshold);
+
+            responseWrapper.setHeader(STATEMENT_COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+            responseWrapper.setHeader(TIME_HEADER, String.valueOf(stats.getTotalTimeMillis()));
+            responseWrapper.setHeader(REPEATED_HEADER, String.valueOf(repeated.size()));
+            responseWrapper.copyBodyToResponse();
+
+            log.debug("{} {} -> {} statements, {} ms", request.getMethod(), request.getRequestURI(), stats.getStatementCount(), stats.getTotalTimeMillis());
+            repeated.forEach((shape, count) -> log.warn("Possible N+1 on {} {}: {}x {}", request.getMethod(), request.getRequestURI(), count, shape));
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.cydeo.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+// Hands out connections whose statements pass every execute* call through execute(). Connections and
+// statements are reflection proxies, so each call on them costs a reflective invoke on top of the driver's.
+public abstract class StatementInterceptingDataSource extends DelegatingDataSource {
+
+    @FunctionalInterface
+    protected interface Execution {
+        Object proceed() throws Throwable;
+    }
+
+    protected StatementInterceptingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    // sql is the statement's text, null for executeBatch on a plain Statement
+    protected abstract Object execute(Statement statement, String sql, Execution execution) throws Throwable;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementInterceptingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : connection.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || connection.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) StatementInterceptingDataSource.invoke(connection, method, args), null));
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler((Statement) StatementInterceptingDataSource.invoke(connection, method, args), (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler((Statement) StatementInterceptingDataSource.invoke(connection, method, args), (String) args[0]));
+                default:
+                    return StatementInterceptingDataSource.invoke(connection, method, args);
+            }
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : statement.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || statement.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return statement.getConnection();
+            }
+
+            if (!method.getName().startsWith("execute")) {
+                return StatementInterceptingDataSource.invoke(statement, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            return execute(statement, sql, () -> StatementInterceptingDataSource.invoke(statement, method, args));
+        }
+    }
+
+}
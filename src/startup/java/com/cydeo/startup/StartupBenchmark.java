@@ -0,0 +1,157 @@
+package com.cydeo.startup;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Starts the app in fresh JVMs until "Started ..." is logged and compares:
+//   default   - the classpath and settings of a local run, devtools included
+//   prod      - the "prod" profile (lazy beans, deferred repositories, fewer auto-configurations), devtools left out like in the jar
+//   prod+cds  - the same with a class data sharing archive made by a training run (JDK 13+)
+// Every run uses the "embedded" profile on top, so no Postgres or Keycloak is needed.
+//
+// mvn -Pstartup -DskipTests test-compile exec:exec [-Dstartup.args="runs=10 only=default,prod+cds"]
+public class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.cydeo.TicketingProjectRestApplication";
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([\\d.]+) seconds");
+
+    private final Path workDir = Paths.get("target", "startup");
+    private final int runs;
+
+    private StartupBenchmark(int runs) {
+        this.runs = runs;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        Set<String> only = options.containsKey("only") ? new HashSet<>(Arrays.asList(options.get("only").split(","))) : null;
+
+        new StartupBenchmark(Integer.parseInt(options.getOrDefault("runs", "5"))).run(only);
+    }
+
+    private void run(Set<String> only) throws Exception {
+
+        Files.createDirectories(workDir);
+        List<String> classpath = jarredClasspath();   // the archive only takes classes from jars, not from directories
+        List<String> prodClasspath = classpath.stream().filter(entry -> !entry.contains("spring-boot-devtools")).collect(Collectors.toList());
+
+        // "prod" first: later profiles win, and the H2 settings of "embedded" have to win over the prod ones
+        List<String> prodArgs = List.of("--spring.profiles.active=prod,embedded");
+        Path archive = workDir.resolve("app.jsa");
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("default", command(classpath, List.of(), List.of("--spring.profiles.active=embedded")));
+        modes.put("prod", command(prodClasspath, List.of(), prodArgs));
+        if (Runtime.version().feature() >= 13) {
+            modes.put("prod+cds", command(prodClasspath, List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:auto"), prodArgs));
+        } else {
+            System.out.println("prod+cds skipped, dynamic class data sharing archives need JDK 13 or later");
+        }
+        modes.keySet().removeIf(mode -> only != null && !only.contains(mode));
+
+        if (modes.containsKey("prod+cds")) {
+            Files.deleteIfExists(archive);
+            start(command(prodClasspath, List.of("-XX:ArchiveClassesAtExit=" + archive), prodArgs));
+            System.out.printf("Training run wrote %s (%d MB)%n", archive, Files.size(archive) >> 20);
+        }
+
+        System.out.printf("%n%-10s %6s %10s %10s %10s %12s%n", "mode", "runs", "min ms", "median ms", "max ms", "spring ms");
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            long[] wallTimes = new long[runs];
+            long[] springTimes = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                long[] times = start(mode.getValue());
+                wallTimes[i] = times[0];
+                springTimes[i] = times[1];
+            }
+            Arrays.sort(wallTimes);
+            Arrays.sort(springTimes);
+            System.out.printf("%-10s %6d %10d %10d %10d %12d%n", mode.getKey(), runs,
+                    wallTimes[0], wallTimes[runs / 2], wallTimes[runs - 1], springTimes[runs / 2]);
+        }
+        System.out.println("\nms: from launching the JVM until the app logged it started; spring ms: the median Spring reported itself");
+    }
+
+    // returns the wall time until "Started" was logged and the time Spring reported, both in ms
+    private long[] start(List<String> command) throws IOException, InterruptedException {
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long startedAt = -1;
+        long reported = -1;
+        StringBuilder output = new StringBuilder();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {   // app.startup.training-run makes the app exit right after starting
+                output.append(line).append('\n');
+                Matcher matcher = STARTED.matcher(line);
+                if (startedAt < 0 && matcher.find()) {
+                    startedAt = System.nanoTime();
+                    reported = Math.round(Double.parseDouble(matcher.group(1)) * 1000);
+                }
+            }
+        }
+        process.waitFor();
+
+        if (startedAt < 0) {
+            System.out.println(output);
+            throw new IllegalStateException("The app did not start, exit code " + process.exitValue());
+        }
+        return new long[]{(startedAt - launched) / 1_000_000, reported};
+    }
+
+    private List<String> command(List<String> classpath, List<String> jvmOptions, List<String> appArgs) {
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-Xlog:cds=off,class+path=off");
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, classpath));
+        command.add(MAIN_CLASS);
+        command.addAll(appArgs);
+        command.add("--server.port=0");
+        command.add("--app.startup.training-run=true");
+        return command;
+    }
+
+    // this JVM's classpath, with every directory (target/classes, target/test-classes) packed into a jar
+    private List<String> jarredClasspath() throws IOException {
+
+        List<String> classpath = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Paths.get(entry);
+            if (!Files.isDirectory(path)) {
+                classpath.add(entry);
+                continue;
+            }
+            Path jar = workDir.resolve(path.getFileName() + ".jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+                 Stream<Path> files = Files.walk(path)) {
+                for (Path file : (Iterable<Path>) files.filter(file -> !file.equals(path)).sorted()::iterator) {
+                    String name = path.relativize(file).toString().replace(File.separatorChar, '/');
+                    boolean directory = Files.isDirectory(file);   // component scanning lists packages through directory entries
+                    out.putNextEntry(new JarEntry(directory ? name + "/" : name));
+                    if (!directory) Files.copy(file, out);
+                    out.closeEntry();
+                }
+            }
+            classpath.add(jar.toAbsolutePath().toString());
+        }
+        return classpath;
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.cydeo.aspect;
+
+import com.cydeo.annotation.SingleFlight;
+import com.cydeo.cache.CacheFill;
+import com.cydeo.deadline.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightAspectTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    SlowService target = new SlowService();
+    SlowService service;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new SingleFlightAspect(meterRegistry, 15000));
+        service = factory.getProxy();
+    }
+
+    @Test
+    void should_share_one_execution_between_concurrent_equal_calls() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> service.listAllByRole("Manager")));
+        }
+        target.started.await(1, TimeUnit.SECONDS);
+        Thread.sleep(100);   // let the others queue up behind the leader
+        target.release.countDown();
+
+        for (Future<List<String>> result : results) {
+            assertThat(result.get(1, TimeUnit.SECONDS)).containsExactly("Manager");
+        }
+        executor.shutdown();
+
+        assertThat(target.executions.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("single_flight.calls", "method", "SlowService.listAllByRole(..)", "role", "follower").count()).isEqualTo(7);
+    }
+
+    @Test
+    void should_not_share_between_different_arguments_or_sequential_calls() throws Exception {
+
+        target.release.countDown();
+
+        service.listAllByRole("Manager");
+        service.listAllByRole("Manager");
+        service.listAllByRole("Employee");
+
+        assertThat(target.executions.get()).isEqualTo(3);
+    }
+
+    @Test
+    void should_not_coalesce_cache_fills() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<List<String>> leader = executor.submit(() -> service.listAllByRole("Manager"));
+        target.started.await(1, TimeUnit.SECONDS);
+        Future<List<String>> fill = executor.submit(() -> CacheFill.run(() -> {
+            try {
+                return service.listAllByRole("Manager");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        Thread.sleep(100);
+        target.release.countDown();
+
+        assertThat(leader.get(1, TimeUnit.SECONDS)).containsExactly("Manager");
+        assertThat(fill.get(1, TimeUnit.SECONDS)).containsExactly("Manager");
+        executor.shutdown();
+
+        assertThat(target.executions.get()).isEqualTo(2);   // the fill ran its own query
+    }
+
+    @Test
+    void should_hand_out_read_only_lists() throws Exception {
+
+        target.release.countDown();
+
+        assertThatThrownBy(() -> service.listAllByRole("Manager").add("Admin")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void should_stop_waiting_for_the_leader_at_the_followers_deadline() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<List<String>> leader = executor.submit(() -> service.listAllByRole("Manager"));
+        target.started.await(1, TimeUnit.SECONDS);
+
+        Future<List<String>> follower = executor.submit(() -> {
+            RequestDeadline.start(50);
+            try {
+                return service.listAllByRole("Manager");
+            } finally {
+                RequestDeadline.restore(null);
+            }
+        });
+
+        assertThatThrownBy(() -> follower.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(QueryTimeoutException.class);
+
+        target.release.countDown();
+        assertThat(leader.get(1, TimeUnit.SECONDS)).containsExactly("Manager");
+        executor.shutdown();
+    }
+
+    @Test
+    void should_hand_failures_to_followers_too() {
+
+        target.release.countDown();
+
+        assertThatThrownBy(() -> service.listAllByRole(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    public static class SlowService {
+
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @SingleFlight
+        public List<String> listAllByRole(String role) throws InterruptedException {
+            executions.incrementAndGet();
+            started.countDown();
+            release.await();
+            if (role == null) throw new IllegalArgumentException("role is required");
+            return new ArrayList<>(List.of(role));
+        }
+    }
+
+}
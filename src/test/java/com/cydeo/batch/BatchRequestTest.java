@@ -0,0 +1,180 @@
+package com.cydeo.batch;
+
+import com.cydeo.fixture.TestLogin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import javax.annotation.security.RolesAllowed;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.task-archive.enabled=false", "app.rate-limit.enabled=false"})
+@ActiveProfiles("embedded")
+@Import(BatchRequestTest.Config.class)
+class BatchRequestTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    DispatcherServlet dispatcherServlet;
+
+    MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        if (dispatcherServlet.getHandlerMappings() == null) {   // no servlet container initializes it here, and sub-requests go through it
+            dispatcherServlet.init(new MockServletConfig(context.getServletContext()));
+        }
+        mvc = MockMvcBuilders.webAppContextSetup(context).build();   // the login comes from TestLogin
+        TestEndpoints.counter.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestLogin.logout();
+    }
+
+    @Test
+    void should_answer_in_request_order_with_reads_after_a_write_seeing_it() throws Exception {
+
+        TestLogin.as("ozzy", "Manager");
+
+        batch("[{\"method\":\"GET\",\"path\":\"/api/test/batch/counter\"}," +
+                "{\"method\":\"POST\",\"path\":\"/api/test/batch/counter\"}," +
+                "{\"method\":\"GET\",\"path\":\"/api/test/batch/counter\"}," +
+                "{\"method\":\"POST\",\"path\":\"/api/test/batch/counter\"}," +
+                "{\"method\":\"GET\",\"path\":\"/api/test/batch/counter\"}]")
+                .andExpect(jsonPath("$.data[*].method").value(contains("GET", "POST", "GET", "POST", "GET")))
+                .andExpect(jsonPath("$.data[*].body.value").value(contains(0, 1, 1, 2, 2)));
+    }
+
+    @Test
+    void should_run_consecutive_reads_in_parallel_with_the_callers_login() throws Exception {
+
+        TestLogin.as("ozzy", "Manager");
+
+        batch("[{\"method\":\"GET\",\"path\":\"/api/test/batch/barrier\"}," +   // each one waits for the other two
+                "{\"method\":\"GET\",\"path\":\"/api/test/batch/barrier\"}," +
+                "{\"method\":\"GET\",\"path\":\"/api/test/batch/barrier\"}]")
+                .andExpect(jsonPath("$.data[*].status").value(everyItem(is(200))))
+                .andExpect(jsonPath("$.data[*].body.thread").value(everyItem(startsWith("batch-"))))
+                .andExpect(jsonPath("$.data[*].body.user").value(everyItem(is("ozzy"))));
+    }
+
+    @Test
+    void should_check_every_sub_request_against_its_own_endpoint() throws Exception {
+
+        TestLogin.as("sam", "Employee");
+
+        batch("[{\"method\":\"GET\",\"path\":\"/api/test/batch/manager\"}," +
+                "{\"method\":\"POST\",\"path\":\"/api/test/batch/counter\"}]")
+                .andExpect(jsonPath("$.data[0].status").value(403))
+                .andExpect(jsonPath("$.data[1].status").value(200));
+
+        TestLogin.as("ozzy", "Manager");
+
+        batch("[{\"method\":\"GET\",\"path\":\"/api/test/batch/manager\"}]")
+                .andExpect(jsonPath("$.data[0].status").value(200));
+    }
+
+    @Test
+    void should_refuse_paths_the_security_filter_chain_would_refuse() throws Exception {
+
+        TestLogin.as("sam", "Employee");
+
+        batch("[{\"method\":\"GET\",\"path\":\"/actuator/metrics\"}," +
+                "{\"method\":\"GET\",\"path\":\"/%61ctuator/metrics/jvm.memory.used\"}," +
+                "{\"method\":\"GET\",\"path\":\"/api/../actuator/metrics\"}]")
+                .andExpect(jsonPath("$.data[*].status").value(everyItem(is(403))));
+    }
+
+    @Test
+    void should_refuse_nested_batches_however_the_path_is_spelled() throws Exception {
+
+        TestLogin.as("ozzy", "Manager");
+
+        String nested = "[{\"method\":\"POST\",\"path\":\"/api/test/batch/counter\"}]";
+        batch("[{\"method\":\"POST\",\"path\":\"/api/v1/batch\",\"body\":" + nested + "}," +
+                "{\"method\":\"POST\",\"path\":\"/api/v1/%62atch\",\"body\":" + nested + "}," +
+                "{\"method\":\"POST\",\"path\":\"/api/v1//batch/\",\"body\":" + nested + "}]")
+                .andExpect(jsonPath("$.data[*].status").value(everyItem(is(400))))
+                .andExpect(jsonPath("$.data[*].body.message").value(everyItem(is("Batches can not be nested"))));
+
+        assertThat(TestEndpoints.counter.get()).isZero();
+    }
+
+    private ResultActions batch(String requests) throws Exception {
+        return mvc.perform(post("/api/v1/batch").contentType(MediaType.APPLICATION_JSON).content(requests)).andExpect(status().isOk());
+    }
+
+    // neither is a stereotype, the benchmark and load harness scan the test classes too and must not pick them up
+    static class Config {
+
+        @Bean
+        TestEndpoints testEndpoints() {
+            return new TestEndpoints();
+        }
+    }
+
+    @RequestMapping("/api/test/batch")   // a handler by its type level mapping
+    @ResponseBody
+    static class TestEndpoints {
+
+        static final AtomicInteger counter = new AtomicInteger();   // static, the bean is a method security proxy
+        static final CyclicBarrier barrier = new CyclicBarrier(3);
+
+        @GetMapping("/counter")
+        public Map<String, Object> counter() {
+            return Map.of("value", counter.get());
+        }
+
+        @PostMapping("/counter")
+        public Map<String, Object> increment() {
+            return Map.of("value", counter.incrementAndGet());
+        }
+
+        @GetMapping("/barrier")
+        public Map<String, Object> barrier() throws Exception {
+            barrier.await(5, TimeUnit.SECONDS);
+            return Map.of("thread", Thread.currentThread().getName(),
+                    "user", SecurityContextHolder.getContext().getAuthentication().getName());
+        }
+
+        @GetMapping("/manager")
+        @RolesAllowed("Manager")
+        public Map<String, Object> manager() {
+            return Map.of("value", "ok");
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.cydeo.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBodyCacheTest {
+
+    ResponseBodyCache cache = new ResponseBodyCache(new ObjectMapper(),
+            new MappingJackson2CborHttpMessageConverter(new ObjectMapper(new CBORFactory())),
+            new MappingJackson2SmileHttpMessageConverter(new ObjectMapper(new SmileFactory())), 16, 5000);
+    AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void should_serve_stored_bytes_until_invalidated() {
+
+        byte[] first = cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), this::load).getBody();
+        byte[] second = cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), this::load).getBody();
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.invalidate(ResponseBodyCache.PROJECTS);
+        cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), this::load);
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.invalidate(ResponseBodyCache.USERS);
+        assertThat(new String(cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), this::load).getBody())).contains("load-2");
+    }
+
+    @Test
+    void should_gzip_for_clients_that_accept_it() throws IOException {
+
+        ResponseEntity<byte[]> plain = cache.respond(ResponseBodyCache.USERS, headers("*/*", "identity"), this::load);
+        ResponseEntity<byte[]> gzipped = cache.respond(ResponseBodyCache.USERS, headers("*/*", "gzip, deflate"), this::load);
+
+        assertThat(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.getBody());
+        }
+    }
+
+    @Test
+    void should_honour_accept_encoding_quality_values() {
+        assertThat(ResponseBodyCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("deflate, gzip; q=0.0")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("identity")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("gzip;q=0.5, identity")).isTrue();
+        assertThat(ResponseBodyCache.acceptsGzip("br, *;q=0.1")).isTrue();
+        assertThat(ResponseBodyCache.acceptsGzip("GZIP")).isTrue();
+    }
+
+    @Test
+    void should_share_one_load_between_concurrent_misses_of_the_same_version() throws Exception {
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<byte[]> leader = CompletableFuture.supplyAsync(() -> cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), () -> {
+            loading.countDown();
+            await(release);
+            return load();
+        }).getBody());
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<byte[]> follower = CompletableFuture.supplyAsync(() -> cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), this::load).getBody());
+        Thread.sleep(100);   // the follower is waiting for the leader's load
+        release.countDown();
+
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(leader.get(5, TimeUnit.SECONDS));
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void should_not_share_a_load_that_began_before_an_invalidation() throws Exception {
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<byte[]> stale = CompletableFuture.supplyAsync(() -> cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), () -> {
+            loading.countDown();
+            await(release);
+            return load();
+        }).getBody());
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        cache.invalidate(ResponseBodyCache.USERS);
+        byte[] fresh = cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), this::load).getBody();
+        release.countDown();
+
+        assertThat(new String(fresh)).contains("load-1");   // loaded by itself, while the stale load was still waiting
+        assertThat(new String(stale.get(5, TimeUnit.SECONDS))).contains("load-2");
+        assertThat(new String(cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), this::load).getBody())).contains("load-1");
+    }
+
+    @Test
+    void should_load_as_a_cache_fill() {
+
+        cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), () -> List.of(CacheFill.isActive()));
+
+        assertThat(new String(cache.respond(ResponseBodyCache.USERS, new HttpHeaders(), this::load).getBody())).isEqualTo("[true]");
+        assertThat(CacheFill.isActive()).isFalse();
+    }
+
+    @Test
+    void should_negotiate_binary_formats_and_default_to_json() throws IOException {
+
+        ResponseEntity<byte[]> json = cache.respond(ResponseBodyCache.USERS, headers("text/html, */*;q=0.8", null), this::load);
+        ResponseEntity<byte[]> cbor = cache.respond(ResponseBodyCache.USERS, headers("application/cbor", null), this::load);
+
+        assertThat(json.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(cbor.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor.getBody()).get(0).asText()).isEqualTo("load-2");
+        assertThat(loads.get()).isEqualTo(2);   // one body per format
+    }
+
+    private static HttpHeaders headers(String accept, String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, accept);
+        if (acceptEncoding != null) headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return headers;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Object load() {
+        return List.of("load-" + loads.incrementAndGet(), "some padding to pass the gzip threshold");
+    }
+
+}
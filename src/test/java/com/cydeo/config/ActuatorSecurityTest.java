@@ -0,0 +1,42 @@
+package com.cydeo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class ActuatorSecurityTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ThreadPoolTaskScheduler taskScheduler;
+
+    @Test
+    void should_keep_health_public() throws Exception {
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void should_not_serve_metrics_without_a_token() throws Exception {
+        mvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/actuator/metrics/rate_limit.rejected")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void should_run_scheduled_jobs_on_more_than_one_thread() {
+        assertThat(taskScheduler.getPoolSize()).isGreaterThan(1);   // a pausing purge must not hold up the other jobs
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.cydeo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.KeycloakPrincipal;
+import org.keycloak.KeycloakSecurityContext;
+import org.keycloak.adapters.RefreshableKeycloakSecurityContext;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.keycloak.adapters.springsecurity.token.KeycloakAuthenticationToken;
+import org.keycloak.representations.AccessToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.mapping.SimpleAuthorityMapper;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingKeycloakAuthenticationProviderTest {
+
+    static final long NOW = System.currentTimeMillis() / 1000;
+
+    AtomicInteger mappings = new AtomicInteger();   // the work a hit saves
+    CachingKeycloakAuthenticationProvider provider = new CachingKeycloakAuthenticationProvider(60_000, 2);
+
+    @BeforeEach
+    void setUp() {
+        SimpleAuthorityMapper mapper = new SimpleAuthorityMapper();
+        provider.setGrantedAuthoritiesMapper(authorities -> {
+            mappings.incrementAndGet();
+            return mapper.mapAuthorities(authorities);
+        });
+    }
+
+    @Test
+    void should_answer_a_known_token_from_the_cache() {
+
+        Authentication first = provider.authenticate(token("t1", NOW + 300));
+        Authentication second = provider.authenticate(token("t1", NOW + 300));
+
+        assertThat(mappings.get()).isEqualTo(1);
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        assertThat(second.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_Manager");
+        assertThat(second.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void should_not_keep_authorities_past_the_token_expiry() {
+
+        provider.authenticate(token("t1", NOW - 1));   // the ttl is a minute, the token's exp comes first
+        provider.authenticate(token("t1", NOW - 1));
+
+        assertThat(mappings.get()).isEqualTo(2);
+    }
+
+    @Test
+    void should_drop_the_least_recently_used_token_when_full() {
+
+        provider.authenticate(token("t1", NOW + 300));
+        provider.authenticate(token("t2", NOW + 300));
+        provider.authenticate(token("t1", NOW + 300));   // t2 is now the least recently used
+        provider.authenticate(token("t3", NOW + 300));
+        assertThat(mappings.get()).isEqualTo(3);
+
+        provider.authenticate(token("t1", NOW + 300));
+        provider.authenticate(token("t3", NOW + 300));
+        assertThat(mappings.get()).isEqualTo(3);
+
+        provider.authenticate(token("t2", NOW + 300));
+        assertThat(mappings.get()).isEqualTo(4);
+    }
+
+    private static KeycloakAuthenticationToken token(String id, long exp) {
+
+        AccessToken token = new AccessToken();
+        token.id(id);
+        token.exp(exp);
+        token.setPreferredUsername("ozzy");
+
+        KeycloakPrincipal<KeycloakSecurityContext> principal = new KeycloakPrincipal<>("ozzy", new KeycloakSecurityContext(null, token, null, null));
+        RefreshableKeycloakSecurityContext securityContext = new RefreshableKeycloakSecurityContext(null, null, null, token, null, null, null);
+        return new KeycloakAuthenticationToken(new SimpleKeycloakAccount(principal, Set.of("Manager"), securityContext), false);
+    }
+
+}
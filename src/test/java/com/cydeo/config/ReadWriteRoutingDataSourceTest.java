@@ -0,0 +1,108 @@
+package com.cydeo.config;
+
+import com.cydeo.cache.CacheFill;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {   // two in-memory databases stand in for the primary and the replica
+
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+    ReadWriteRoutingDataSource routingDataSource;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readOnly;
+    TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(database("primary"));
+        replica = new JdbcTemplate(database("replica"));
+        primary.execute("CREATE TABLE node(name VARCHAR(20))");
+        primary.execute("INSERT INTO node VALUES ('primary')");
+        replica.execute("CREATE TABLE node(name VARCHAR(20))");
+        replica.execute("INSERT INTO node VALUES ('replica')");
+        replica.execute("CREATE TABLE replica_lag(seconds DOUBLE)");
+        replica.execute("INSERT INTO replica_lag VALUES (0)");
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary.getDataSource(), replica.getDataSource(),
+                "SELECT seconds FROM replica_lag", Duration.ofSeconds(10));
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    void should_route_read_only_transactions_to_replica() {
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void should_route_cache_fills_to_primary() {
+        assertThat(CacheFill.run(() -> nodeIn(readOnly))).isEqualTo("primary");
+    }
+
+    @Test
+    void should_route_writes_to_primary() {
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+        assertThat(currentNode()).isEqualTo("primary");
+    }
+
+    @Test
+    void should_fall_back_to_primary_when_replica_lags() {
+        replica.update("UPDATE replica_lag SET seconds = 60");
+        routingDataSource.checkReplicaLag();
+
+        assertThat(routingDataSource.isReplicaUsable()).isFalse();
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+
+        replica.update("UPDATE replica_lag SET seconds = 1");
+        routingDataSource.checkReplicaLag();
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void should_fall_back_to_primary_when_replica_is_down() {
+        replica.execute("DROP TABLE replica_lag");
+        routingDataSource.checkReplicaLag();
+
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+    }
+
+    private String nodeIn(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> currentNode());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.cydeo.config;
+
+import com.cydeo.entity.Role;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadWriteRoutingJpaTest {   // the same routing as ReadWriteRoutingDataSourceTest, through hibernate and the JPA transaction manager
+
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+    LocalContainerEntityManagerFactoryBean factoryBean;
+    EntityManagerFactory entityManagerFactory;
+    TransactionTemplate readOnly;
+    TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(database("jpa-primary"));
+        replica = new JdbcTemplate(database("jpa-replica"));
+        for (JdbcTemplate node : new JdbcTemplate[]{primary, replica}) {
+            node.execute("CREATE TABLE roles(id BIGINT AUTO_INCREMENT PRIMARY KEY, description VARCHAR(255), is_deleted BOOLEAN, " +
+                    "insert_date_time TIMESTAMP NOT NULL, insert_user_id BIGINT NOT NULL, last_update_date_time TIMESTAMP NOT NULL, last_update_user_id BIGINT NOT NULL)");
+        }
+        primary.update("INSERT INTO roles(description, is_deleted, insert_date_time, insert_user_id, last_update_date_time, last_update_user_id) " +
+                "VALUES ('primary', false, now(), 1, now(), 1)");
+        replica.update("INSERT INTO roles(description, is_deleted, insert_date_time, insert_user_id, last_update_date_time, last_update_user_id) " +
+                "VALUES ('replica', false, now(), 1, now(), 1)");
+        replica.execute("CREATE TABLE replica_lag(seconds DOUBLE)");
+        replica.execute("INSERT INTO replica_lag VALUES (0)");
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary.getDataSource(), replica.getDataSource(),
+                "SELECT seconds FROM replica_lag", Duration.ofSeconds(10));
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.cydeo.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName()));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factoryBean.destroy();
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    void should_route_read_only_jpa_transactions_to_replica() {
+        String description = readOnly.execute(status -> entityManager().find(Role.class, 1L).getDescription());
+        assertThat(description).isEqualTo("replica");
+    }
+
+    @Test
+    void should_route_jpa_writes_to_primary() {
+        readWrite.executeWithoutResult(status -> {
+            Role role = entityManager().find(Role.class, 1L);
+            assertThat(role.getDescription()).isEqualTo("primary");   // the read of a read-then-write sees the primary too
+            role.setDescription("updated");
+        });
+
+        assertThat(primary.queryForObject("SELECT description FROM roles WHERE id = 1", String.class)).isEqualTo("updated");
+        assertThat(replica.queryForObject("SELECT description FROM roles WHERE id = 1", String.class)).isEqualTo("replica");
+    }
+
+    @Test
+    void should_write_to_primary_after_a_read_only_transaction_on_the_same_thread() {
+        readOnly.executeWithoutResult(status -> entityManager().find(Role.class, 1L));
+        readWrite.executeWithoutResult(status -> entityManager().persist(new Role("written")));
+
+        assertThat(primary.queryForObject("SELECT count(*) FROM roles WHERE description = 'written'", Integer.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT count(*) FROM roles WHERE description = 'written'", Integer.class)).isZero();
+    }
+
+    @Test
+    void should_refuse_routing_with_open_in_view() {
+        assertThatThrownBy(() -> new DataSourceRoutingConfig(true)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private EntityManager entityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+}
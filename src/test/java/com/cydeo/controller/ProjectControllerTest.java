@@ -120,8 +120,9 @@ class ProjectControllerTest {
         mvc.perform(MockMvcRequestBuilders.delete("/api/v1/project/" + project.getProjectCode())
                 .header("Authorization", token)
                 .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value("Project is successfully deleted"));
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value("Project deletion is accepted"))
+                .andExpect(jsonPath("$.data.type").value("DELETE_PROJECT"));
     }
 
     private static String getToken() {
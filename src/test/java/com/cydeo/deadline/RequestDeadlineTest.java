@@ -0,0 +1,96 @@
+package com.cydeo.deadline;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestDeadlineTest {
+
+    RequestDeadlineInterceptor interceptor = new RequestDeadlineInterceptor(15000, 60000);
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new QueryDeadlineDataSource(h2));
+        jdbcTemplate.execute("CREATE TABLE task(id BIGINT)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.restore(null);
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void should_use_the_time_left_as_query_timeout() {
+
+        assertThat(queryTimeout()).isZero();   // no deadline, driver default
+
+        RequestDeadline.start(2500);
+
+        assertThat(queryTimeout()).isEqualTo(3);   // whole seconds, rounded up
+    }
+
+    @Test
+    void should_not_start_queries_after_the_deadline() throws InterruptedException {
+
+        RequestDeadline.start(1);
+        Thread.sleep(5);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO task VALUES (1)"))
+                .isInstanceOf(QueryTimeoutException.class);
+
+        RequestDeadline.restore(null);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task", Integer.class)).isZero();
+    }
+
+    @Test
+    void should_take_the_callers_timeout_up_to_the_maximum() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(RequestDeadlineInterceptor.TIMEOUT_HEADER, "90000");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler());
+        assertThat(RequestDeadline.current().getTimeoutMillis()).isEqualTo(60000);
+
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler(), null);
+        assertThat(RequestDeadline.current()).isNull();
+    }
+
+    @Test
+    void should_cap_a_nested_request_by_its_parent() throws Exception {
+
+        RequestDeadline parent = RequestDeadline.start(1000);   // e.g. the batch request
+        MockHttpServletRequest nested = new MockHttpServletRequest();
+
+        interceptor.preHandle(nested, new MockHttpServletResponse(), handler());   // endpoint default is 15 s
+        assertThat(RequestDeadline.current().getTimeoutMillis()).isLessThanOrEqualTo(1000);
+
+        interceptor.afterCompletion(nested, new MockHttpServletResponse(), handler(), null);
+        assertThat(RequestDeadline.current()).isSameAs(parent);
+    }
+
+    private HandlerMethod handler() throws NoSuchMethodException {
+        return new HandlerMethod(this, RequestDeadlineTest.class.getDeclaredMethod("queryTimeout"));
+    }
+
+    private int queryTimeout() {
+        return jdbcTemplate.execute((StatementCallback<Integer>) statement -> {
+            statement.execute("SELECT 1");
+            return statement.getQueryTimeout();
+        });
+    }
+
+}
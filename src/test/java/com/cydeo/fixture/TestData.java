@@ -0,0 +1,235 @@
+package com.cydeo.fixture;
+
+import com.cydeo.entity.BaseEntity;
+import com.cydeo.enums.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Writes users, projects and tasks straight into the tables, for tests, the benchmark and the load harness that
+// need more rows than data.sql has, or rows the services would not write (deleted, old, by another user).
+// Rows start from the values below; a row only names what its test is about.
+public class TestData {
+
+    public static final long MANAGER_ID = 2;    // ozzy, loaded by data.sql
+    public static final long EMPLOYEE_ID = 3;   // sam, loaded by data.sql
+    public static final long EMPLOYEE_ROLE_ID = 3;
+
+    private static final String AUDIT_COLUMNS = "insert_date_time, insert_user_id, is_deleted, last_update_date_time, last_update_user_id";
+
+    private static final String INSERT_USER = "INSERT INTO users(" + AUDIT_COLUMNS + ", " +
+            "enabled, first_name, last_name, user_name, pass_word, gender, phone, role_id) " +
+            "VALUES (?, ?, ?, ?, ?, true, ?, ?, ?, 'abc1', 'MALE', '', ?)";
+
+    private static final String INSERT_PROJECT = "INSERT INTO projects(" + AUDIT_COLUMNS + ", " +
+            "project_code, project_name, project_detail, project_status, start_date, end_date, manager_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TASK = "INSERT INTO tasks(" + AUDIT_COLUMNS + ", " +
+            "task_subject, task_detail, task_status, assigned_date, assigned_employee_id, project_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TestData(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static UserRow user(String userName) {
+        return new UserRow(userName);
+    }
+
+    public static ProjectRow project(String code) {
+        return new ProjectRow(code);
+    }
+
+    public static TaskRow task(long projectId) {
+        return new TaskRow(projectId);
+    }
+
+    public long insert(UserRow user) {
+        insertUsers(List.of(user));
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE user_name = ?", Long.class, user.userName);
+    }
+
+    public long insert(ProjectRow project) {
+        insertProjects(List.of(project));
+        return projectId(project.code);
+    }
+
+    public void insert(TaskRow task) {
+        insertTasks(List.of(task));
+    }
+
+    public void insertUsers(List<UserRow> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users.stream().map(UserRow::values).collect(Collectors.toList()));
+    }
+
+    public void insertProjects(List<ProjectRow> projects) {
+        jdbcTemplate.batchUpdate(INSERT_PROJECT, projects.stream().map(ProjectRow::values).collect(Collectors.toList()));
+    }
+
+    public void insertTasks(List<TaskRow> tasks) {
+        jdbcTemplate.batchUpdate(INSERT_TASK, tasks.stream().map(TaskRow::values).collect(Collectors.toList()));
+    }
+
+    public long projectId(String code) {
+        return jdbcTemplate.queryForObject("SELECT id FROM projects WHERE project_code = ?", Long.class, code);
+    }
+
+    public Map<String, Long> projectIds(String codePrefix) {
+        return jdbcTemplate.query("SELECT project_code, id FROM projects WHERE project_code LIKE ?",
+                (rs, i) -> Map.entry(rs.getString(1), rs.getLong(2)), codePrefix + "%").stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    @SuppressWarnings("unchecked")
+    public abstract static class Row<R extends Row<R>> {
+
+        private boolean deleted;
+        private LocalDateTime updated = LocalDateTime.now();
+        private long userId = BaseEntity.SYSTEM_USER_ID;
+
+        public R deleted(boolean deleted) {
+            this.deleted = deleted;
+            return (R) this;
+        }
+
+        public R updated(LocalDateTime updated) {   // inserted at the same time
+            this.updated = updated;
+            return (R) this;
+        }
+
+        public R by(long userId) {   // insert and last update user
+            this.userId = userId;
+            return (R) this;
+        }
+
+        Object[] withAudit(Object... columns) {
+            Object[] values = new Object[5 + columns.length];
+            values[0] = updated;
+            values[1] = userId;
+            values[2] = deleted;
+            values[3] = updated;
+            values[4] = userId;
+            System.arraycopy(columns, 0, values, 5, columns.length);
+            return values;
+        }
+    }
+
+    public static class UserRow extends Row<UserRow> {
+
+        private final String userName;
+        private String firstName = "";
+        private String lastName = "";
+        private long roleId = EMPLOYEE_ROLE_ID;
+
+        private UserRow(String userName) {
+            this.userName = userName;
+        }
+
+        public UserRow name(String firstName, String lastName) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            return this;
+        }
+
+        public UserRow role(long roleId) {
+            this.roleId = roleId;
+            return this;
+        }
+
+        private Object[] values() {
+            return withAudit(firstName, lastName, userName, roleId);
+        }
+    }
+
+    public static class ProjectRow extends Row<ProjectRow> {
+
+        private final String code;
+        private String name;
+        private String detail = "";
+        private Status status = Status.IN_PROGRESS;
+        private LocalDate startDate = LocalDate.now();
+        private LocalDate endDate = LocalDate.now();
+        private long managerId = MANAGER_ID;
+
+        private ProjectRow(String code) {
+            this.code = code;
+            this.name = code;
+        }
+
+        public ProjectRow name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public ProjectRow detail(String detail) {
+            this.detail = detail;
+            return this;
+        }
+
+        public ProjectRow status(Status status) {
+            this.status = status;
+            return this;
+        }
+
+        public ProjectRow dates(LocalDate startDate, LocalDate endDate) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            return this;
+        }
+
+        private Object[] values() {
+            return withAudit(code, name, detail, status.name(), startDate, endDate, managerId);
+        }
+    }
+
+    public static class TaskRow extends Row<TaskRow> {
+
+        private final long projectId;
+        private String subject = "subject";
+        private String detail = "detail";
+        private Status status = Status.OPEN;
+        private LocalDate assignedDate = LocalDate.now();
+        private long employeeId = EMPLOYEE_ID;
+
+        private TaskRow(long projectId) {
+            this.projectId = projectId;
+        }
+
+        public TaskRow subject(String subject) {
+            this.subject = subject;
+            return this;
+        }
+
+        public TaskRow detail(String detail) {
+            this.detail = detail;
+            return this;
+        }
+
+        public TaskRow status(Status status) {
+            this.status = status;
+            return this;
+        }
+
+        public TaskRow assignedDate(LocalDate assignedDate) {
+            this.assignedDate = assignedDate;
+            return this;
+        }
+
+        public TaskRow employee(long employeeId) {
+            this.employeeId = employeeId;
+            return this;
+        }
+
+        private Object[] values() {
+            return withAudit(subject, detail, status.name(), assignedDate, employeeId, projectId);
+        }
+    }
+
+}
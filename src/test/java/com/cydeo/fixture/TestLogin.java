@@ -0,0 +1,41 @@
+package com.cydeo.fixture;
+
+import org.keycloak.KeycloakPrincipal;
+import org.keycloak.KeycloakSecurityContext;
+import org.keycloak.adapters.RefreshableKeycloakSecurityContext;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.keycloak.adapters.springsecurity.token.KeycloakAuthenticationToken;
+import org.keycloak.representations.AccessToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Puts a keycloak authentication like the one SecurityConfig builds from a bearer token on the current thread,
+// for MockMvc set up without the security filter chain and for services that read the logged in user.
+public final class TestLogin {
+
+    private TestLogin() {
+    }
+
+    public static void as(String username, String... roles) {
+
+        AccessToken token = new AccessToken();
+        token.setPreferredUsername(username);
+
+        // the principal gets a plain context, a refreshable one would send KeycloakSecurityContextRequestFilter to the realm
+        KeycloakPrincipal<KeycloakSecurityContext> principal = new KeycloakPrincipal<>(username, new KeycloakSecurityContext(null, token, null, null));
+        RefreshableKeycloakSecurityContext securityContext = new RefreshableKeycloakSecurityContext(null, null, null, token, null, null, null);
+        SimpleKeycloakAccount account = new SimpleKeycloakAccount(principal, Set.of(roles), securityContext);
+
+        SecurityContextHolder.getContext().setAuthentication(new KeycloakAuthenticationToken(account, false,
+                Arrays.stream(roles).map(role -> new SimpleGrantedAuthority("ROLE_" + role)).collect(Collectors.toList())));
+    }
+
+    public static void logout() {
+        SecurityContextHolder.clearContext();
+    }
+
+}
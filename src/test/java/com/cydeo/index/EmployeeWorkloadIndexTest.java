@@ -0,0 +1,81 @@
+package com.cydeo.index;
+
+import com.cydeo.dto.EmployeeWorkloadDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeWorkloadIndexTest {
+
+    EmployeeWorkloadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EmployeeWorkloadIndex();
+        index.putEmployee(1L, "sam", "Sam", "Smith");
+        index.putEmployee(2L, "kate", "Kate", "Jones");
+        index.putEmployee(3L, "john", "John", "Doe");
+        index.adjust(1L, 10L, 3);
+        index.adjust(1L, 20L, 2);
+        index.adjust(2L, 10L, 1);
+    }
+
+    @Test
+    void should_list_least_loaded_employees_first() {
+        assertThat(index.leastLoaded(10L, 3)).extracting(EmployeeWorkloadDTO::getUserName).containsExactly("john", "kate", "sam");
+        assertThat(index.leastLoaded(10L, 3).get(2)).isEqualTo(new EmployeeWorkloadDTO("sam", "Sam", "Smith", 5, 3));
+    }
+
+    @Test
+    void should_reorder_when_a_workload_changes() {
+        index.adjust(3L, 20L, 4);
+        index.adjust(1L, 10L, -3);
+
+        assertThat(index.leastLoaded(20L, 2)).extracting(EmployeeWorkloadDTO::getUserName).containsExactly("kate", "sam");
+    }
+
+    @Test
+    void should_replace_the_counts_of_one_project() {
+        index.replaceProject(10L, Map.of(3L, 2));   // e.g. after a bulk complete or clone
+
+        assertThat(index.leastLoaded(10L, 3)).extracting(EmployeeWorkloadDTO::getOpenTasks).containsExactly(0, 2, 2);
+        assertThat(index.leastLoaded(10L, 3)).extracting(EmployeeWorkloadDTO::getUserName).containsExactly("kate", "sam", "john");
+    }
+
+    @Test
+    void should_move_tasks_between_employees() {
+        index.move(1L, 2L, 20L);
+        assertThat(index.leastLoaded(20L, 3)).extracting(EmployeeWorkloadDTO::getOpenTasks).containsExactly(0, 3, 3);
+
+        index.move(1L, 3L, null);
+        assertThat(index.leastLoaded(10L, 3)).extracting(EmployeeWorkloadDTO::getProjectOpenTasks).containsExactly(0, 1, 3);
+    }
+
+    @Test
+    void should_forget_removed_employees() {
+        index.removeEmployee(3L);
+        index.adjust(3L, 10L, 1);   // tasks of someone who is no longer a candidate
+
+        assertThat(index.leastLoaded(10L, 5)).extracting(EmployeeWorkloadDTO::getUserName).containsExactly("kate", "sam");
+    }
+
+    @Test
+    void should_swap_in_a_rebuilt_index_and_return_the_projects_changed_while_it_loaded() {
+        Set<Long> changed = index.rebuild(fresh -> {
+            fresh.putEmployee(1L, "sam", "Sam", "Smith");
+            fresh.putEmployee(2L, "kate", "Kate", "Jones");
+            fresh.adjust(1L, 10L, 3);
+
+            assertThat(index.size()).isEqualTo(3);   // the old content is still served
+            index.adjust(2L, 30L, 1);
+            index.putEmployee(4L, "anna", "Anna", "Lee");
+        });
+
+        assertThat(changed).containsExactly(30L);
+        assertThat(index.leastLoaded(10L, 5)).extracting(EmployeeWorkloadDTO::getUserName).containsExactly("kate", "anna", "sam");
+    }
+}
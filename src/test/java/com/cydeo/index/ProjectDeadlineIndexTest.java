@@ -0,0 +1,82 @@
+package com.cydeo.index;
+
+import com.cydeo.dto.ProjectOverdueDTO;
+import com.cydeo.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ProjectDeadlineIndexTest {
+
+    static final LocalDate TODAY = LocalDate.of(2026, 6, 15);
+
+    ProjectDeadlineIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProjectDeadlineIndex();
+        index.put(1L, "SP01", "Spring", TODAY.minusDays(10), Status.OPEN);
+        index.put(2L, "SP02", "Boot", TODAY.minusDays(1), Status.IN_PROGRESS);
+        index.put(3L, "SP03", "Data", TODAY, Status.OPEN);   // due today, not overdue yet
+        index.put(4L, "SP04", "Done", TODAY.minusDays(30), Status.COMPLETE);
+    }
+
+    @Test
+    void should_report_each_overdue_project_once() {
+        assertThat(index.pollOverdue(TODAY)).extracting(ProjectOverdueDTO::getProjectCode).containsExactly("SP01", "SP02");
+        assertThat(index.pollOverdue(TODAY)).isEmpty();
+
+        assertThat(index.pollOverdue(TODAY.plusDays(1))).extracting(ProjectOverdueDTO::getProjectCode).containsExactly("SP03");
+    }
+
+    @Test
+    void should_list_overdue_projects_most_overdue_first() {
+        index.pollOverdue(TODAY.minusDays(5));   // SP01 reported, SP02 not yet
+
+        assertThat(index.overdue(TODAY)).extracting(ProjectOverdueDTO::getProjectCode, ProjectOverdueDTO::getDaysOverdue)
+                .containsExactly(tuple("SP01", 10L), tuple("SP02", 1L));
+    }
+
+    @Test
+    void should_follow_end_date_changes_and_completion() {
+        index.pollOverdue(TODAY);
+
+        index.put(1L, "SP01", "Spring", TODAY.plusDays(7), Status.OPEN);   // deadline extended
+        index.remove(2L);                                                   // completed or deleted
+
+        assertThat(index.overdue(TODAY)).isEmpty();
+        assertThat(index.pollOverdue(TODAY.plusDays(8))).extracting(ProjectOverdueDTO::getProjectCode).containsExactly("SP03", "SP01");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void should_swap_in_a_rebuilt_index_with_the_writes_made_while_it_loaded() {
+        index.rebuild(fresh -> {
+            fresh.put(1L, "SP01", "Spring", TODAY.minusDays(10), Status.OPEN);
+            fresh.put(2L, "SP02", "Boot", TODAY.minusDays(1), Status.IN_PROGRESS);
+
+            assertThat(index.size()).isEqualTo(3);   // the old content is still served
+            index.remove(2L);
+            index.put(5L, "SP05", "Cloud", TODAY.minusDays(3), Status.OPEN);
+        });
+
+        assertThat(index.overdue(TODAY)).extracting(ProjectOverdueDTO::getProjectCode).containsExactly("SP01", "SP05");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void should_not_report_projects_that_were_already_overdue_when_loaded() {
+        index.rebuild(fresh -> {
+            fresh.load(1L, "SP01", "Spring", TODAY.minusDays(10), Status.OPEN, TODAY);
+            fresh.load(3L, "SP03", "Data", TODAY, Status.OPEN, TODAY);
+        });
+
+        assertThat(index.pollOverdue(TODAY)).isEmpty();
+        assertThat(index.overdue(TODAY)).extracting(ProjectOverdueDTO::getProjectCode).containsExactly("SP01");
+        assertThat(index.pollOverdue(TODAY.plusDays(1))).extracting(ProjectOverdueDTO::getProjectCode).containsExactly("SP03");
+    }
+}
@@ -0,0 +1,92 @@
+package com.cydeo.index;
+
+import com.cydeo.dto.TaskSearchStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskSearchIndexTest {
+
+    TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+        index.index(1L, "Dependency Injection", "Learn constructor injection in Spring");
+        index.index(2L, "Spring Boot", "Create the boot starter project");
+        index.index(3L, "Database", "Connect Spring Data JPA to Postgres");
+    }
+
+    @Test
+    void should_find_tasks_by_exact_word() {
+        assertThat(index.search("injection", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void should_find_tasks_by_prefix() {
+        assertThat(index.search("postg", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void should_require_every_query_word_to_match() {
+        assertThat(index.search("spring postgres", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void should_rank_subject_matches_first() {
+        List<Long> hits = index.search("boot", 10);
+        assertThat(hits).containsExactly(2L);
+
+        index.index(4L, "Deploy", "Boot the server");
+        assertThat(index.search("boot", 10)).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void should_reindex_updated_task() {
+        index.index(2L, "Spring MVC", "Create controllers");
+
+        assertThat(index.search("boot", 10)).isEmpty();
+        assertThat(index.search("mvc", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void should_remove_deleted_task() {
+        index.remove(1L);
+
+        assertThat(index.search("injection", 10)).isEmpty();
+        assertThat(index.stats().getIndexedTasks()).isEqualTo(2);
+    }
+
+    @Test
+    void should_respect_limit() {
+        assertThat(index.search("spring", 2)).hasSize(2);
+    }
+
+    @Test
+    void should_report_memory_usage() {
+        TaskSearchStatsDTO stats = index.stats();
+
+        assertThat(stats.getIndexedTasks()).isEqualTo(3);
+        assertThat(stats.getTerms()).isGreaterThan(10);
+        assertThat(stats.getEstimatedMemoryBytes()).isPositive();
+    }
+
+    @Test
+    void should_swap_in_a_rebuilt_index_with_the_writes_made_while_it_loaded() {
+        index.rebuild(fresh -> {
+            fresh.index(1L, "Dependency Injection", "");
+            fresh.index(2L, "Spring Boot", "");
+
+            assertThat(index.search("postgres", 10)).containsExactly(3L);   // searches still see the old content
+            index.index(4L, "Postgres backup", "");
+            index.remove(2L);
+        });
+
+        assertThat(index.search("postgres", 10)).containsExactly(4L);
+        assertThat(index.search("boot", 10)).isEmpty();
+        assertThat(index.stats().getIndexedTasks()).isEqualTo(2);
+    }
+}
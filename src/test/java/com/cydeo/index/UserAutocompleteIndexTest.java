@@ -0,0 +1,68 @@
+package com.cydeo.index;
+
+import com.cydeo.dto.UserSuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserAutocompleteIndexTest {
+
+    UserAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserAutocompleteIndex();
+        index.put(1L, "mike", "Mike", "Smith", "Admin");
+        index.put(2L, "ozzy", "Ozzy", "Osbourne", "Manager");
+        index.put(3L, "sam", "Sam", "Miller", "Employee");
+        index.put(4L, "smith.j", "John", "Smith", "Employee");
+        index.put(5L, "martha", "Martha", "Stewart", "Employee");
+    }
+
+    @Test
+    void should_match_first_name_last_name_and_username() {
+        assertThat(index.suggest("employee", "mi", 10)).extracting(UserSuggestionDTO::getUserName).containsExactly("sam");
+        assertThat(index.suggest("Employee", "Sm", 10)).extracting(UserSuggestionDTO::getUserName).containsExactly("smith.j");
+        assertThat(index.suggest("Employee", "john s", 10)).extracting(UserSuggestionDTO::getUserName).containsExactly("smith.j");
+        assertThat(index.suggest("Employee", "s", 10)).extracting(UserSuggestionDTO::getUserName)
+                .containsExactly("sam", "smith.j", "martha");   // alphabetical by matching key, each user once
+    }
+
+    @Test
+    void should_keep_roles_apart_and_stop_at_the_limit() {
+        assertThat(index.suggest("Admin", "s", 10)).extracting(UserSuggestionDTO::getUserName).containsExactly("mike");
+        assertThat(index.suggest("Employee", "", 2)).hasSize(2);
+        assertThat(index.suggest("Manager", "x", 10)).isEmpty();
+        assertThat(index.suggest("Unknown", "", 10)).isEmpty();
+    }
+
+    @Test
+    void should_forget_old_keys_on_update_and_remove() {
+        index.put(3L, "sam", "Samuel", "Brown", null);   // no role given, stays an employee
+        assertThat(index.suggest("Employee", "mil", 10)).isEmpty();
+        assertThat(index.suggest("Employee", "bro", 10)).extracting(UserSuggestionDTO::getFirstName).containsExactly("Samuel");
+
+        index.put(3L, "sam", "Samuel", "Brown", "Manager");
+        assertThat(index.suggest("Employee", "sam", 10)).isEmpty();
+        assertThat(index.suggest("Manager", "sam", 10)).extracting(UserSuggestionDTO::getUserName).containsExactly("sam");
+
+        index.remove(3L);
+        assertThat(index.suggest("Manager", "sam", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void should_swap_in_a_rebuilt_index_with_the_writes_made_while_it_loaded() {
+        index.rebuild(fresh -> {
+            fresh.put(3L, "sam", "Sam", "Miller", "Employee");
+
+            assertThat(index.suggest("Employee", "", 10)).hasSize(3);   // suggestions still come from the old content
+            index.put(6L, "sara", "Sara", "Lee", "Employee");
+            index.put(3L, "sam", "Samuel", "Miller", null);
+        });
+
+        assertThat(index.suggest("Employee", "sa", 10)).extracting(UserSuggestionDTO::getFirstName).containsExactly("Samuel", "Sara");
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
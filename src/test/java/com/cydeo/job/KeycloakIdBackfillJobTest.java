@@ -0,0 +1,58 @@
+package com.cydeo.job;
+
+import com.cydeo.repository.UserRepository;
+import com.cydeo.service.KeycloakService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class KeycloakIdBackfillJobTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("UPDATE users SET keycloak_id = NULL, keycloak_id_unresolved = NULL");
+    }
+
+    @Test
+    void should_store_found_ids_and_not_look_up_unknown_users_again() {
+
+        KeycloakService keycloakService = mock(KeycloakService.class);
+        when(keycloakService.findIdByUserName(anyString())).thenReturn(null);
+        when(keycloakService.findIdByUserName("mike")).thenReturn("kc-mike");
+        KeycloakIdBackfillJob job = new KeycloakIdBackfillJob(userRepository, keycloakService, null, 2, false);   // smaller than the seed users
+
+        job.backfill();
+
+        assertThat(keycloakIdOf("mike")).isEqualTo("kc-mike");
+        assertThat(keycloakIdOf("ozzy")).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT keycloak_id_unresolved FROM users WHERE user_name = 'ozzy'", Boolean.class)).isTrue();
+
+        KeycloakService second = mock(KeycloakService.class);
+        new KeycloakIdBackfillJob(userRepository, second, null, 2, false).backfill();
+
+        verify(second, never()).findIdByUserName(anyString());
+    }
+
+    private String keycloakIdOf(String userName) {
+        return jdbcTemplate.queryForObject("SELECT keycloak_id FROM users WHERE user_name = ?", String.class, userName);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.cydeo.job;
+
+import com.cydeo.fixture.TestData;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.cydeo.fixture.TestData.project;
+import static com.cydeo.fixture.TestData.task;
+import static com.cydeo.fixture.TestData.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class SoftDeletePurgeJobTest {
+
+    private static final LocalDateTime OLD = LocalDateTime.now().minusDays(60);
+    private static final LocalDateTime RECENT = LocalDateTime.now();
+
+    @Autowired
+    SoftDeletePurgeJob purgeJob;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM archived_tasks");
+        jdbcTemplate.update("DELETE FROM tasks");
+        jdbcTemplate.update("DELETE FROM projects WHERE project_code LIKE 'PRG%'");
+        jdbcTemplate.update("DELETE FROM users WHERE user_name LIKE 'purge%'");
+    }
+
+    @Test
+    void should_purge_old_deleted_rows_children_first() {
+
+        TestData testData = new TestData(jdbcTemplate);
+        long oldUser = testData.insert(user("purge.old").deleted(true).updated(OLD));
+        long busyUser = testData.insert(user("purge.busy").deleted(true).updated(OLD));
+        long recentUser = testData.insert(user("purge.recent").deleted(true).updated(RECENT));
+
+        long oldProject = testData.insert(project("PRG-OLD").deleted(true).updated(OLD));
+        long liveProject = testData.insert(project("PRG-LIVE").updated(OLD));
+
+        List<TestData.TaskRow> tasks = new ArrayList<>();
+        for (int i = 0; i < 450; i++) tasks.add(task(oldProject).employee(oldUser).deleted(true).updated(OLD));   // more than two batches
+        tasks.add(task(liveProject).employee(busyUser).updated(OLD));
+        tasks.add(task(liveProject).employee(recentUser).deleted(true).updated(RECENT));
+        testData.insertTasks(tasks);
+
+        purgeJob.purge();
+
+        assertThat(count("tasks")).isEqualTo(2);
+        assertThat(count("projects WHERE project_code LIKE 'PRG%'")).isEqualTo(1);
+        assertThat(count("users WHERE user_name LIKE 'purge%'")).isEqualTo(2);   // busy is still assigned, recent is inside the window
+        assertThat(count("users WHERE id = " + oldUser)).isZero();
+        assertThat(meterRegistry.counter("purge.rows", "table", "tasks").count()).isGreaterThanOrEqualTo(450);
+    }
+
+    private int count(String from) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + from, Integer.class);
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.cydeo.ratelimit;
+
+import com.cydeo.fixture.TestLogin;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.annotation.security.RolesAllowed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitInterceptorTest {
+
+    MockEnvironment environment = new MockEnvironment()
+            .withProperty("app.rate-limit.default.requests-per-second", "0.5")
+            .withProperty("app.rate-limit.default.burst", "1")
+            .withProperty("app.rate-limit.roles.Manager.requests-per-second", "0.5")
+            .withProperty("app.rate-limit.roles.Manager.burst", "2")
+            .withProperty("app.rate-limit.roles.Admin.requests-per-second", "1")
+            .withProperty("app.rate-limit.roles.Admin.burst", "4");
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    RateLimitInterceptor interceptor = new RateLimitInterceptor(new TokenBucketRateLimiter(), environment, meterRegistry, new ObjectMapper());
+
+    @AfterEach
+    void tearDown() {
+        TestLogin.logout();
+    }
+
+    @Test
+    void should_answer_429_with_retry_after_once_the_burst_is_used() throws Exception {
+
+        TestLogin.as("ozzy", "Manager");
+
+        assertThat(admitted(3, "managerOnly")).isEqualTo(2);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("managerOnly"))).isFalse();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");   // one token every 2 s, rounded up
+        assertThat(response.getContentAsString()).contains("\"code\":429");
+    }
+
+    @Test
+    void should_count_rejections_per_role_and_endpoint() throws Exception {
+
+        TestLogin.as("ozzy", "Manager");
+        admitted(5, "managerOnly");
+
+        assertThat(meterRegistry.counter("rate_limit.rejected", "role", "Manager", "endpoint", "Endpoints.managerOnly").count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void should_size_the_bucket_by_the_most_generous_role_held() throws Exception {
+
+        TestLogin.as("mike", "Manager", "Admin");
+        assertThat(admitted(10, "managerOrAdmin")).isEqualTo(4);
+
+        TestLogin.as("ozzy", "Manager");
+        assertThat(admitted(10, "managerOrAdmin")).isEqualTo(2);
+
+        TestLogin.as("sam", "Employee");   // no role of the endpoint, default limits
+        assertThat(admitted(10, "managerOrAdmin")).isEqualTo(1);
+    }
+
+    @Test
+    void should_keep_users_and_endpoints_apart() throws Exception {
+
+        TestLogin.as("ozzy", "Manager");
+        assertThat(admitted(10, "managerOnly")).isEqualTo(2);
+        assertThat(admitted(10, "managerOrAdmin")).isEqualTo(2);
+
+        TestLogin.as("harold", "Manager");
+        assertThat(admitted(10, "managerOnly")).isEqualTo(2);
+    }
+
+    @Test
+    void should_let_anonymous_calls_through_to_security() throws Exception {
+        assertThat(admitted(10, "managerOnly")).isEqualTo(10);
+    }
+
+    private int admitted(int calls, String endpoint) throws Exception {
+        int admitted = 0;
+        for (int i = 0; i < calls; i++) {
+            if (interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler(endpoint))) admitted++;
+        }
+        return admitted;
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getDeclaredMethod(name));
+    }
+
+    static class Endpoints {
+
+        @RolesAllowed("Manager")
+        void managerOnly() {
+        }
+
+        @RolesAllowed({"Manager", "Admin"})
+        void managerOrAdmin() {
+        }
+
+    }
+
+}
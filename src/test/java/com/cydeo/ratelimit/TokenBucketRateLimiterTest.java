@@ -0,0 +1,55 @@
+package com.cydeo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter();
+
+    @Test
+    void should_admit_a_full_burst_then_reject() {
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire("sam|TaskController.getTasks", 1, 5)).isZero();
+        }
+
+        long wait = rateLimiter.tryAcquire("sam|TaskController.getTasks", 1, 5);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void should_keep_keys_apart() {
+
+        assertThat(rateLimiter.tryAcquire("sam|TaskController.getTasks", 1, 1)).isZero();
+        assertThat(rateLimiter.tryAcquire("sam|TaskController.getTasks", 1, 1)).isPositive();
+
+        assertThat(rateLimiter.tryAcquire("ozzy|TaskController.getTasks", 1, 1)).isZero();
+        assertThat(rateLimiter.tryAcquire("sam|UserController.getUsers", 1, 1)).isZero();
+    }
+
+    @Test
+    void should_refill_over_time() throws InterruptedException {
+
+        assertThat(rateLimiter.tryAcquire("sam", 100, 1)).isZero();
+        assertThat(rateLimiter.tryAcquire("sam", 100, 1)).isPositive();
+
+        Thread.sleep(20);   // one token every 10 ms
+
+        assertThat(rateLimiter.tryAcquire("sam", 100, 1)).isZero();
+    }
+
+    @Test
+    void should_evict_buckets_that_are_full_again() throws InterruptedException {
+
+        rateLimiter.tryAcquire("sam", 1000, 1);
+        Thread.sleep(5);
+        rateLimiter.evictIdleBuckets();
+
+        assertThat(rateLimiter.size()).isZero();
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.JobDTO;
+import com.cydeo.enums.JobStatus;
+import com.cydeo.enums.JobType;
+import com.cydeo.enums.Status;
+import com.cydeo.fixture.TestData;
+import com.cydeo.fixture.TestLogin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.cydeo.fixture.TestData.project;
+import static com.cydeo.fixture.TestData.task;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class JobServiceTest {
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    JobService jobService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM tasks WHERE project_id IN (SELECT id FROM projects WHERE project_code LIKE 'JOB%')");
+        jdbcTemplate.update("DELETE FROM projects WHERE project_code LIKE 'JOB%'");
+
+        TestData testData = new TestData(jdbcTemplate);
+        long project = testData.insert(project("JOB-1"));
+        List<TestData.TaskRow> tasks = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {   // more than two chunks
+            tasks.add(task(project).status(i % 3 == 0 ? Status.COMPLETE : Status.OPEN));
+        }
+        testData.insertTasks(tasks);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestLogin.logout();
+    }
+
+    @Test
+    void should_complete_project_tasks_in_a_background_job() throws InterruptedException {
+
+        TestLogin.as("ozzy", "Manager");
+        JobDTO job = projectService.complete("JOB-1");
+        assertThat(job.getType()).isEqualTo(JobType.COMPLETE_PROJECT);
+
+        JobDTO finished = awaitFinished(job.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(JobStatus.COMPLETED);
+        assertThat(finished.getTotalItems()).isEqualTo(300);
+        assertThat(finished.getProcessedItems()).isEqualTo(300);
+        assertThat(finished.getProgress()).isEqualTo(100);
+        assertThat(projectService.getByProjectCode("JOB-1").getProjectStatus().name()).isEqualTo("COMPLETE");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks t JOIN projects p ON t.project_id = p.id " +
+                "WHERE p.project_code = 'JOB-1' AND t.task_status <> 'COMPLETE'", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks t JOIN projects p ON t.project_id = p.id " +
+                "WHERE p.project_code = 'JOB-1' AND t.last_update_user_id = 2", Integer.class)).isEqualTo(300);   // the job runs as ozzy
+    }
+
+    @Test
+    void should_delete_project_tasks_in_a_background_job() throws InterruptedException {
+
+        JobDTO job = projectService.delete("JOB-1");
+
+        JobDTO finished = awaitFinished(job.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(JobStatus.COMPLETED);
+        assertThat(finished.getProcessedItems()).isEqualTo(450);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks t JOIN projects p ON t.project_id = p.id " +
+                "WHERE p.project_code LIKE 'JOB-1-%' AND t.is_deleted = false", Integer.class)).isZero();
+    }
+
+    private JobDTO awaitFinished(Long jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JobDTO job = jobService.findById(jobId);
+            if (job.getStatus() == JobStatus.COMPLETED || job.getStatus() == JobStatus.FAILED) return job;
+            Thread.sleep(100);
+        }
+        return jobService.findById(jobId);
+    }
+
+}
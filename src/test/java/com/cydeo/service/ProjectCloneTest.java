@@ -0,0 +1,111 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.ProjectCloneDTO;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.enums.Status;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.fixture.TestData;
+import com.cydeo.fixture.TestLogin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.cydeo.fixture.TestData.project;
+import static com.cydeo.fixture.TestData.task;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class ProjectCloneTest {
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    TaskService taskService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    WebApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM tasks WHERE project_id IN (SELECT id FROM projects WHERE project_code LIKE 'TPL%')");
+        jdbcTemplate.update("DELETE FROM projects WHERE project_code LIKE 'TPL%'");
+
+        TestData testData = new TestData(jdbcTemplate);
+        long template = testData.insert(project("TPL-1").name("Monthly close").detail("template").status(Status.COMPLETE)
+                .dates(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31)));
+        List<TestData.TaskRow> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            tasks.add(task(template).subject("reconcile ledger").status(Status.COMPLETE).assignedDate(LocalDate.of(2026, 1, 10))
+                    .deleted(i % 10 == 0));   // every tenth one is deleted
+        }
+        testData.insertTasks(tasks);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestLogin.logout();
+    }
+
+    @Test
+    void should_copy_the_project_and_its_tasks_with_shifted_dates() throws TicketingProjectException {
+
+        TestLogin.as("ozzy", "Manager");
+        ProjectDTO clone = projectService.clone("TPL-1", new ProjectCloneDTO("TPL-2", null, LocalDate.of(2026, 2, 1)));
+
+        assertThat(clone.getProjectName()).isEqualTo("Monthly close");
+        assertThat(clone.getProjectStatus()).isEqualTo(Status.OPEN);
+        assertThat(clone.getEndDate()).isEqualTo(LocalDate.of(2026, 3, 3));   // 31 days later, like the start
+        assertThat(clone.getAssignedManager().getUserName()).isEqualTo("ozzy");
+        assertThat(clone.getUnfinishedTaskCounts()).isEqualTo(270);
+
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT t.task_status || ' ' || t.assigned_date FROM tasks t " +
+                "JOIN projects p ON t.project_id = p.id WHERE p.project_code = 'TPL-2'", String.class))
+                .containsExactly("OPEN 2026-02-10");
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT t.insert_user_id FROM tasks t " +
+                "JOIN projects p ON t.project_id = p.id WHERE p.project_code = 'TPL-2'", Long.class))
+                .containsExactly(2L);
+        assertThat(taskService.totalTaskByProject(clone.getId())).isEqualTo(270);
+        assertThat(taskService.search("reconcile", 1000)).hasSizeGreaterThanOrEqualTo(270);
+    }
+
+    @Test
+    void should_refuse_a_code_that_is_already_used() {
+
+        assertThatThrownBy(() -> projectService.clone("TPL-1", new ProjectCloneDTO("SP00", null, null)))
+                .isInstanceOf(TicketingProjectException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM projects WHERE project_code = 'SP00'", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void should_answer_bad_request_and_conflict_from_the_endpoint() throws Exception {
+
+        TestLogin.as("ozzy", "Manager");
+        MockMvc mvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        mvc.perform(post("/api/v1/project/TPL-1/clone").contentType(MediaType.APPLICATION_JSON).content("{\"projectCode\":\" \"}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/v1/project/TPL-1/clone").contentType(MediaType.APPLICATION_JSON).content("{\"projectCode\":\"SP00\"}"))
+                .andExpect(status().isConflict());
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.ProjectOverdueDTO;
+import com.cydeo.fixture.TestData;
+import com.cydeo.index.ProjectDeadlineIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static com.cydeo.fixture.TestData.project;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class ProjectDeadlineTest {
+
+    static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectDeadlineIndex projectDeadlineIndex;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM jobs WHERE project_code LIKE 'DL%'");
+        jdbcTemplate.update("DELETE FROM projects WHERE project_code LIKE 'DL%'");
+
+        new TestData(jdbcTemplate).insert(project("DL-1").dates(TODAY.minusDays(20), TODAY.minusDays(2)));
+        projectService.rebuildDeadlineIndex();
+    }
+
+    @Test
+    void should_not_report_projects_again_after_a_restart() {
+
+        assertThat(projectDeadlineIndex.pollOverdue(TODAY)).extracting(ProjectOverdueDTO::getProjectCode).doesNotContain("DL-1");
+        assertThat(projectService.listAllOverdue()).extracting(ProjectOverdueDTO::getProjectCode).contains("DL-1");
+    }
+
+    @Test
+    void should_only_drop_a_project_once_its_completion_commits() {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            projectService.complete("DL-1");
+            status.setRollbackOnly();
+        });
+
+        assertThat(projectService.listAllOverdue()).extracting(ProjectOverdueDTO::getProjectCode).contains("DL-1");
+
+        projectService.complete("DL-1");
+
+        assertThat(projectService.listAllOverdue()).extracting(ProjectOverdueDTO::getProjectCode).doesNotContain("DL-1");
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.enums.Status;
+import com.cydeo.fixture.TestData;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.repository.ArchivedTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.cydeo.fixture.TestData.project;
+import static com.cydeo.fixture.TestData.task;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class TaskArchiveTest {
+
+    @Autowired
+    TaskService taskService;
+
+    @Autowired
+    ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    TaskMapper taskMapper;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM archived_tasks");
+        jdbcTemplate.update("DELETE FROM tasks");
+        jdbcTemplate.update("DELETE FROM projects WHERE project_code LIKE 'ARC%'");
+
+        TestData testData = new TestData(jdbcTemplate);
+        long done = testData.insert(project("ARC-DONE").status(Status.COMPLETE));
+        long open = testData.insert(project("ARC-OPEN").status(Status.IN_PROGRESS));
+        for (int i = 0; i < 5; i++) {
+            testData.insert(task(done).status(Status.COMPLETE));
+            testData.insert(task(open).status(Status.COMPLETE));   // project still running, stays hot
+        }
+        testData.insert(task(done).status(Status.OPEN));            // not completed, stays hot
+    }
+
+    @Test
+    void should_move_completed_tasks_of_completed_projects_in_batches() {
+
+        assertThat(taskService.archiveCompletedTasks(3)).isEqualTo(3);
+        assertThat(taskService.archiveCompletedTasks(3)).isEqualTo(2);
+        assertThat(taskService.archiveCompletedTasks(3)).isZero();
+
+        assertThat(count("archived_tasks")).isEqualTo(5);
+        assertThat(count("tasks")).isEqualTo(6);
+        assertThat(taskService.totalCompletedTask("ARC-DONE")).isEqualTo(5);
+        assertThat(taskService.totalNonCompletedTask("ARC-DONE")).isEqualTo(1);
+        assertThat(taskService.totalCompletedTask("ARC-OPEN")).isEqualTo(5);
+    }
+
+    @Test
+    @Transactional
+    void should_map_archived_tasks_like_hot_ones() {
+
+        taskService.archiveCompletedTasks(10);
+
+        TaskDTO task = taskMapper.convertToDto(archivedTaskRepository.findAll().get(0));
+
+        assertThat(task.getTaskStatus()).isEqualTo(Status.COMPLETE);
+        assertThat(task.getProject().getProjectCode()).isEqualTo("ARC-DONE");
+        assertThat(task.getAssignedEmployee().getUserName()).isEqualTo("sam");
+    }
+
+    @Test
+    void should_still_find_archived_tasks_by_id_in_the_list_and_by_search() {
+
+        TestData testData = new TestData(jdbcTemplate);
+        testData.insert(task(testData.projectId("ARC-DONE")).status(Status.COMPLETE).subject("nebula"));
+        taskService.rebuildSearchIndex();
+        taskService.archiveCompletedTasks(10);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM archived_tasks WHERE task_subject = 'nebula'", Long.class);
+
+        assertThat(taskService.findById(id).getTaskSubject()).isEqualTo("nebula");
+        assertThat(taskService.listAllTasks()).extracting(TaskDTO::getId).contains(id).hasSize(12);
+        assertThat(taskService.search("nebula", 10)).extracting(TaskDTO::getId).containsExactly(id);
+
+        taskService.rebuildSearchIndex();   // a restart builds the index from both tables
+        assertThat(taskService.search("nebula", 10)).extracting(TaskDTO::getId).containsExactly(id);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.TaskBoardColumnDTO;
+import com.cydeo.dto.TaskBoardDTO;
+import com.cydeo.enums.Status;
+import com.cydeo.fixture.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.cydeo.fixture.TestData.project;
+import static com.cydeo.fixture.TestData.task;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class TaskBoardTest {
+
+    @Autowired
+    TaskService taskService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM archived_tasks WHERE project_id IN (SELECT id FROM projects WHERE project_code LIKE 'BRD%')");
+        jdbcTemplate.update("DELETE FROM tasks WHERE project_id IN (SELECT id FROM projects WHERE project_code LIKE 'BRD%')");
+        jdbcTemplate.update("DELETE FROM projects WHERE project_code LIKE 'BRD%'");
+
+        TestData testData = new TestData(jdbcTemplate);
+        long board = testData.insert(project("BRD-1"));
+        List<TestData.TaskRow> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(task(board).subject("task " + i).status(i < 30 ? Status.OPEN : Status.COMPLETE)
+                    .assignedDate(LocalDate.of(2026, 1, 1).minusDays(i)).deleted(i == 39));
+        }
+        testData.insertTasks(tasks);
+    }
+
+    @Test
+    void should_bucket_tasks_by_status_with_counts_and_limits() {
+
+        TaskBoardDTO board = taskService.board("BRD-1", 10);
+
+        assertThat(board.getColumns()).extracting(TaskBoardColumnDTO::getStatus)
+                .containsExactly(Status.OPEN, Status.IN_PROGRESS, Status.COMPLETE);
+
+        TaskBoardColumnDTO open = board.getColumns().get(0);
+        assertThat(open.getTotalTasks()).isEqualTo(30);
+        assertThat(open.getTasks()).hasSize(10);
+        assertThat(open.getTasks().get(0).getTaskSubject()).isEqualTo("task 29");   // oldest first
+        assertThat(open.getTasks().get(0).getAssignedEmployeeUserName()).isEqualTo("sam");
+
+        assertThat(board.getColumns().get(1).getTotalTasks()).isZero();
+        assertThat(board.getColumns().get(2).getTotalTasks()).isEqualTo(9);   // the deleted one is left out
+    }
+
+    @Test
+    void should_keep_archived_tasks_in_the_complete_column() {
+
+        jdbcTemplate.update("UPDATE projects SET project_status = 'COMPLETE' WHERE project_code = 'BRD-1'");
+        while (taskService.archiveCompletedTasks(100) > 0) ;   // other tests may have left archivable tasks behind
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks t JOIN projects p ON t.project_id = p.id " +
+                "WHERE p.project_code = 'BRD-1' AND t.task_status = 'COMPLETE' AND t.is_deleted = false", Integer.class)).isZero();
+
+        TaskBoardDTO board = taskService.board("BRD-1", 5);
+
+        TaskBoardColumnDTO complete = board.getColumns().get(2);
+        assertThat(complete.getTotalTasks()).isEqualTo(9);
+        assertThat(complete.getTasks()).hasSize(5);
+        assertThat(complete.getTasks().get(0).getTaskSubject()).isEqualTo("task 38");   // the deleted one is still left out
+        assertThat(board.getColumns().get(0).getTotalTasks()).isEqualTo(30);
+    }
+
+    @Test
+    void should_tell_an_unknown_project_from_an_empty_one() {
+
+        assertThatThrownBy(() -> taskService.board("BRD-404", 10)).isInstanceOf(NoSuchElementException.class);
+    }
+
+}
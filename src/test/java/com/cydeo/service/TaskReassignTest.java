@@ -0,0 +1,122 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.EmployeeWorkloadDTO;
+import com.cydeo.dto.TaskReassignDTO;
+import com.cydeo.enums.Status;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.fixture.TestData;
+import com.cydeo.fixture.TestLogin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.cydeo.fixture.TestData.project;
+import static com.cydeo.fixture.TestData.task;
+import static com.cydeo.fixture.TestData.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class TaskReassignTest {
+
+    @Autowired
+    TaskService taskService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM tasks WHERE project_id IN (SELECT id FROM projects WHERE project_code LIKE 'RA%')");
+        jdbcTemplate.update("DELETE FROM projects WHERE project_code LIKE 'RA%'");
+        jdbcTemplate.update("DELETE FROM users WHERE user_name LIKE 'ra-%'");
+
+        TestData testData = new TestData(jdbcTemplate);
+        long john = testData.insert(user("ra-john"));
+        testData.insert(user("ra-kate"));
+        List<TestData.TaskRow> tasks = new ArrayList<>();
+        for (String code : new String[]{"RA-1", "RA-2"}) {
+            long project = testData.insert(project(code));
+            for (int i = 0; i < 30; i++) {
+                tasks.add(task(project).employee(john).status(i % 3 == 0 ? Status.COMPLETE : Status.OPEN));
+            }
+        }
+        testData.insertTasks(tasks);
+        taskService.rebuildWorkloadIndex();   // the rows above did not go through the service
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestLogin.logout();
+    }
+
+    @Test
+    void should_move_open_tasks_of_one_project_and_then_the_rest() throws TicketingProjectException {
+
+        TestLogin.as("ozzy", "Manager");
+        TaskReassignDTO result = taskService.reassignNonCompleted(new TaskReassignDTO("ra-john", "ra-kate", "RA-1"));
+
+        assertThat(result.getReassignedTasks()).isEqualTo(20);   // completed tasks keep their employee
+        assertThat(result.getRemainingOpenTasks()).isEqualTo(20);
+
+        result = taskService.reassignNonCompleted(new TaskReassignDTO("ra-john", "ra-kate", null));
+
+        assertThat(result.getReassignedTasks()).isEqualTo(20);
+        assertThat(result.getRemainingOpenTasks()).isZero();
+        assertThat(openTasks("ra-kate")).isEqualTo(40);
+        assertThat(openTasks("ra-john")).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks t JOIN users u ON t.assigned_employee_id = u.id " +
+                "WHERE u.user_name = 'ra-kate' AND t.last_update_user_id = 2", Integer.class)).isEqualTo(40);
+        assertThat(taskService.recommendAssignees("RA-1", 100))
+                .filteredOn(employee -> employee.getUserName().startsWith("ra-"))
+                .extracting(EmployeeWorkloadDTO::getUserName, EmployeeWorkloadDTO::getOpenTasks)
+                .containsExactly(tuple("ra-john", 0), tuple("ra-kate", 40));
+    }
+
+    @Test
+    void should_keep_the_workloads_when_the_reassignment_rolls_back() {
+
+        TestLogin.as("ozzy", "Manager");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                taskService.reassignNonCompleted(new TaskReassignDTO("ra-john", "ra-kate", null));
+            } catch (TicketingProjectException e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        assertThat(openTasks("ra-john")).isEqualTo(40);
+        assertThat(taskService.recommendAssignees("RA-1", 100))
+                .filteredOn(employee -> employee.getUserName().startsWith("ra-"))
+                .extracting(EmployeeWorkloadDTO::getUserName, EmployeeWorkloadDTO::getOpenTasks)
+                .containsExactly(tuple("ra-kate", 0), tuple("ra-john", 40));
+    }
+
+    @Test
+    void should_only_hand_tasks_to_an_employee() {
+
+        assertThatThrownBy(() -> taskService.reassignNonCompleted(new TaskReassignDTO("ra-john", "ozzy", null)))
+                .isInstanceOf(TicketingProjectException.class);
+    }
+
+    private int openTasks(String userName) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks t JOIN users u ON t.assigned_employee_id = u.id " +
+                "WHERE u.user_name = ? AND t.task_status <> 'COMPLETE' AND t.is_deleted = false", Integer.class, userName);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.fixture.TestData;
+import com.cydeo.index.EmployeeWorkloadIndex;
+import com.cydeo.index.TaskSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.cydeo.fixture.TestData.project;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class TaskSearchTest {
+
+    @Autowired
+    TaskService taskService;
+
+    @Autowired
+    TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    EmployeeWorkloadIndex employeeWorkloadIndex;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    long projectId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM tasks WHERE project_id IN (SELECT id FROM projects WHERE project_code LIKE 'SRCH%')");
+        jdbcTemplate.update("DELETE FROM projects WHERE project_code LIKE 'SRCH%'");
+
+        projectId = new TestData(jdbcTemplate).insert(project("SRCH-1"));
+        taskService.rebuildSearchIndex();
+        taskService.rebuildWorkloadIndex();
+    }
+
+    @Test
+    void should_only_index_a_task_once_its_save_commits() {
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            taskService.save(task("quasar"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(taskSearchIndex.search("quasar", 10)).isEmpty();
+        assertThat(openTasks()).isZero();
+
+        taskService.save(task("quasar"));
+
+        assertThat(taskService.search("quasar", 10)).extracting(TaskDTO::getTaskSubject).containsExactly("quasar");
+        assertThat(openTasks()).isEqualTo(1);
+    }
+
+    private int openTasks() {
+        return employeeWorkloadIndex.leastLoaded(projectId, 100).stream()
+                .filter(workload -> workload.getUserName().equals("sam"))
+                .findFirst().orElseThrow().getProjectOpenTasks();
+    }
+
+    private TaskDTO task(String subject) {
+        ProjectDTO project = new ProjectDTO();
+        project.setId(projectId);
+        UserDTO employee = new UserDTO();
+        employee.setId(TestData.EMPLOYEE_ID);
+
+        TaskDTO task = new TaskDTO();
+        task.setProject(project);
+        task.setAssignedEmployee(employee);
+        task.setTaskSubject(subject);
+        task.setTaskDetail("detail");
+        return task;
+    }
+
+}
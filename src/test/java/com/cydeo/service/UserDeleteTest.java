@@ -0,0 +1,65 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.UserSuggestionDTO;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.fixture.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.cydeo.fixture.TestData.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.task-archive.enabled=false")
+@ActiveProfiles("embedded")
+class UserDeleteTest {
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE user_name LIKE 'zed%'");
+
+        long id = new TestData(jdbcTemplate).insert(user("zed@employee.com").name("Zed", "Doe"));
+        jdbcTemplate.update("UPDATE users SET keycloak_id_unresolved = true WHERE id = ?", id);   // nothing to delete in keycloak
+        userService.rebuildAutocompleteIndex();
+    }
+
+    @Test
+    void should_only_drop_a_user_from_the_indexes_once_the_delete_commits() throws TicketingProjectException {
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                userService.delete("zed@employee.com");
+            } catch (TicketingProjectException e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        assertThat(suggestions()).extracting(UserSuggestionDTO::getUserName).containsExactly("zed@employee.com");
+
+        userService.delete("zed@employee.com");
+
+        assertThat(suggestions()).isEmpty();
+    }
+
+    private List<UserSuggestionDTO> suggestions() {
+        return userService.suggestByRole("Employee", "zed", 10);
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.config.KeycloakProperties;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.UserDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// KeycloakServiceImpl against a local stand-in for the admin API that can be slowed down or made to fail
+class KeycloakServiceImplTest {
+
+    HttpServer server;
+    volatile long delayMillis;
+    volatile int failStatus;
+    AtomicInteger adminCalls = new AtomicInteger();
+
+    CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMillis(300))
+            .permittedNumberOfCallsInHalfOpenState(1)
+            .ignoreExceptions(ClientErrorException.class, BulkheadFullException.class)
+            .build());
+    BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+
+    KeycloakServiceImpl keycloakService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/auth", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        KeycloakProperties properties = new KeycloakProperties();
+        properties.setAuthServerUrl("http://localhost:" + server.getAddress().getPort() + "/auth");
+        properties.setRealm("cydeo-dev");
+        properties.setClientId("ticketing-app");
+        properties.setMasterRealm("master");
+        properties.setMasterClient("master-client");
+        properties.setMasterUser("admin");
+        properties.setMasterUserPswd("admin");
+
+        keycloakService = new KeycloakServiceImpl(properties, circuitBreakerRegistry, bulkheadRegistry,
+                Duration.ofMillis(500), Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        keycloakService.close();
+        server.stop(0);
+    }
+
+    @Test
+    void should_create_update_and_delete_users_through_the_shared_client() {
+
+        for (int i = 0; i < 15; i++) {   // more than the connection pool, so every response has to be released
+            String keycloakId = keycloakService.userCreate(user("user" + i + "@cydeo.com"));
+            keycloakService.update(keycloakId, user("user" + i + "@cydeo.com"));
+            keycloakService.delete(keycloakId);
+            assertThat(keycloakId).isEqualTo("u1");
+        }
+
+        assertThat(adminCalls.get()).isEqualTo(15 * 7);   // no user search, the id is used directly
+        assertThat(circuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_give_up_on_a_slow_identity_server() {
+
+        delayMillis = 2000;
+
+        long start = System.currentTimeMillis();
+        assertThatThrownBy(() -> keycloakService.delete("u1")).isInstanceOf(ProcessingException.class);
+        assertThat(System.currentTimeMillis() - start).isLessThan(delayMillis);
+    }
+
+    @Test
+    void should_open_the_circuit_and_probe_again_after_the_wait() throws InterruptedException {
+
+        failStatus = 500;
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> keycloakService.delete("u1")).isInstanceOf(WebApplicationException.class);
+        }
+        assertThat(circuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int callsBefore = adminCalls.get();
+        assertThatThrownBy(() -> keycloakService.delete("u1")).isInstanceOf(CallNotPermittedException.class);
+        assertThat(adminCalls.get()).isEqualTo(callsBefore);   // failed fast, the server never saw it
+
+        failStatus = 0;
+        Thread.sleep(400);
+        keycloakService.delete("u1");   // the half-open probe succeeds
+
+        assertThat(circuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_reject_calls_over_the_bulkhead() throws Exception {
+
+        delayMillis = 200;
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = caller.submit(() -> keycloakService.delete("u1"));
+            Thread.sleep(50);
+
+            assertThatThrownBy(() -> keycloakService.delete("u1")).isInstanceOf(BulkheadFullException.class);
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    private CircuitBreaker circuitBreaker() {
+        return circuitBreakerRegistry.circuitBreaker(KeycloakServiceImpl.KEYCLOAK);
+    }
+
+    private UserDTO user(String userName) {
+        UserDTO user = new UserDTO();
+        user.setUserName(userName);
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setPassWord("Abc1");
+        user.setRole(new RoleDTO(3L, "Employee"));
+        return user;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            exchange.getRequestBody().readAllBytes();   // unread bodies make the server drop the kept-alive connection
+
+            if (path.endsWith("/protocol/openid-connect/token")) {
+                send(exchange, 200, "{\"access_token\":\"admin-token\",\"expires_in\":3600,\"refresh_expires_in\":0,\"token_type\":\"Bearer\"}");
+                return;
+            }
+
+            adminCalls.incrementAndGet();
+            if (delayMillis > 0) Thread.sleep(delayMillis);
+            if (failStatus > 0) {
+                send(exchange, failStatus, "{\"error\":\"injected\"}");
+                return;
+            }
+
+            String users = "/auth/admin/realms/cydeo-dev/users";
+            if (path.equals(users) && method.equals("POST")) {
+                exchange.getResponseHeaders().add("Location", "http://localhost" + users + "/u1");
+                send(exchange, 201, null);
+            } else if (path.endsWith("/clients")) {
+                send(exchange, 200, "[{\"id\":\"c1\",\"clientId\":\"ticketing-app\"}]");
+            } else if (path.contains("/roles/")) {
+                send(exchange, 200, "{\"id\":\"r1\",\"name\":\"Employee\",\"clientRole\":true}");
+            } else {
+                send(exchange, 204, null);   // role mapping, update, password reset, delete
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+}
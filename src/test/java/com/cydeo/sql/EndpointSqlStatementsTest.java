@@ -0,0 +1,68 @@
+package com.cydeo.sql;
+
+import com.cydeo.fixture.TestLogin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static com.cydeo.sql.SqlStatementCountMatchers.maxStatements;
+import static com.cydeo.sql.SqlStatementCountMatchers.noRepeatedStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Statement budgets per endpoint, so a lazy association or a query in a loop shows up as a failing test
+@SpringBootTest(properties = {"app.task-archive.enabled=false", "app.sql-stats.enabled=true", "app.rate-limit.enabled=false"})
+@ActiveProfiles("embedded")
+class EndpointSqlStatementsTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter;
+
+    MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).addFilters(sqlStatsFilter.getFilter()).build();   // the login comes from TestLogin
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestLogin.logout();
+    }
+
+    @Test
+    void project_list() throws Exception {
+        TestLogin.as("ozzy", "Manager");
+        mvc.perform(get("/api/v1/project")).andExpect(status().isOk()).andExpect(maxStatements(2)).andExpect(noRepeatedStatements());
+    }
+
+    @Test
+    void user_list() throws Exception {
+        TestLogin.as("mike", "Admin");
+        mvc.perform(get("/api/v1/user")).andExpect(status().isOk())
+                .andExpect(maxStatements(4)).andExpect(noRepeatedStatements());   // the users, then each of the three roles once
+    }
+
+    @Test
+    void task_board() throws Exception {
+        TestLogin.as("ozzy", "Manager");
+        mvc.perform(get("/api/v1/task/board/SP00")).andExpect(status().isOk()).andExpect(maxStatements(3)).andExpect(noRepeatedStatements());
+    }
+
+    @Test
+    void employee_pending_tasks() throws Exception {
+        TestLogin.as("sam", "Employee");
+        mvc.perform(get("/api/v1/task/employee/pending-tasks")).andExpect(status().isOk()).andExpect(maxStatements(3)).andExpect(noRepeatedStatements());
+    }
+
+}
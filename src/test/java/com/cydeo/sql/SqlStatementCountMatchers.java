@@ -0,0 +1,26 @@
+package com.cydeo.sql;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// MockMvc matchers over the headers of SqlStatsFilter; the context needs app.sql-stats.enabled=true
+public final class SqlStatementCountMatchers {
+
+    private SqlStatementCountMatchers() {
+    }
+
+    public static ResultMatcher maxStatements(int max) {
+        return result -> {
+            String count = result.getResponse().getHeader(SqlStatsFilter.STATEMENT_COUNT_HEADER);
+            assertThat(count).as("%s header, is app.sql-stats.enabled set?", SqlStatsFilter.STATEMENT_COUNT_HEADER).isNotNull();
+            assertThat(Integer.parseInt(count)).as("SQL statements for %s", result.getRequest().getRequestURI()).isLessThanOrEqualTo(max);
+        };
+    }
+
+    public static ResultMatcher noRepeatedStatements() {
+        return result -> assertThat(result.getResponse().getHeader(SqlStatsFilter.REPEATED_HEADER))
+                .as("repeated SQL shapes for %s", result.getRequest().getRequestURI()).isEqualTo("0");
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.cydeo.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementCountingDataSourceTest {
+
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-stats;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new SqlStatementCountingDataSource(h2));
+        jdbcTemplate.execute("CREATE TABLE task(id BIGINT, subject VARCHAR(20))");
+        jdbcTemplate.batchUpdate("INSERT INTO task VALUES (?, ?)", List.of(
+                new Object[]{1L, "a"}, new Object[]{2L, "b"}, new Object[]{3L, "c"}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void should_count_statements_in_scope_only() throws Exception {
+
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task", Long.class);   // no scope, not counted
+
+        SqlStatementStats stats = SqlStatementStats.measure(() -> {
+            jdbcTemplate.queryForList("SELECT * FROM task");
+            return jdbcTemplate.update("UPDATE task SET subject = ? WHERE id = ?", "d", 1L);
+        });
+
+        assertThat(stats.getStatementCount()).isEqualTo(2);
+        assertThat(stats.getRepeatedStatements(2)).isEmpty();
+        assertThat(SqlStatementStats.current()).isNull();
+    }
+
+    @Test
+    void should_report_repeated_shapes() throws Exception {
+
+        SqlStatementStats stats = SqlStatementStats.measure(() -> {
+            for (long id = 1; id <= 3; id++) {
+                jdbcTemplate.queryForList("SELECT subject FROM task WHERE id = " + id);   // literal ids, same shape
+                jdbcTemplate.queryForList("SELECT subject FROM task WHERE id = ?", id);
+            }
+            return null;
+        });
+
+        assertThat(stats.getStatementCount()).isEqualTo(6);
+        assertThat(stats.getRepeatedStatements(3))
+                .containsEntry("select subject from task where id = ?", 6);
+    }
+
+    @Test
+    void should_fold_literals_and_in_lists() {
+        assertThat(SqlStatementStats.shapeOf("SELECT *  FROM users u0_ WHERE u0_.id IN (?, ?, ?) AND name='x' LIMIT 10"))
+                .isEqualTo("select * from users u0_ where u0_.id in (?) and name=? limit ?");
+    }
+
+}
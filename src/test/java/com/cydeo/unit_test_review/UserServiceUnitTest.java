@@ -1,11 +1,14 @@
 package com.cydeo.unit_test_review;
 
+import com.cydeo.cache.ResponseBodyCache;
 import com.cydeo.dto.ProjectDTO;
 import com.cydeo.dto.RoleDTO;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.entity.Role;
 import com.cydeo.entity.User;
 import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.index.EmployeeWorkloadIndex;
+import com.cydeo.index.UserAutocompleteIndex;
 import com.cydeo.mapper.UserMapper;
 import com.cydeo.repository.UserRepository;
 import com.cydeo.service.KeycloakService;
@@ -53,6 +56,15 @@ public class UserServiceUnitTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ResponseBodyCache responseBodyCache;
+
+    @Mock
+    private EmployeeWorkloadIndex employeeWorkloadIndex;
+
+    @Mock
+    private UserAutocompleteIndex userAutocompleteIndex;
+
     @InjectMocks
     private UserServiceImpl userService;
 